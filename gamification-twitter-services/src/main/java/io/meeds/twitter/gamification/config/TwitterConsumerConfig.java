@@ -0,0 +1,68 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TwitterConsumerConfig {
+
+  public static final String TWITTER_CONSUMER_EXECUTOR = "twitterConsumerExecutor";
+
+  public static final String VIRTUAL_EXECUTOR_TYPE     = "virtual";
+
+  @Value("${io.meeds.gamification.twitter.consumer.threads:10}")
+  private int                consumerThreads;
+
+  /**
+   * Type of threads running Twitter API calls: 'platform' for a fixed pool of
+   * 'consumer.threads' threads, or 'virtual' for a new virtual thread per call
+   */
+  @Value("${io.meeds.gamification.twitter.consumer.executorType:platform}")
+  private String             executorType;
+
+  /**
+   * @return a dedicated {@link ExecutorService} used to run Twitter API calls
+   *         asynchronously, so that callers don't hold their own thread while
+   *         waiting for remote responses
+   */
+  @Bean(name = TWITTER_CONSUMER_EXECUTOR)
+  public ExecutorService twitterConsumerExecutor() {
+    if (VIRTUAL_EXECUTOR_TYPE.equalsIgnoreCase(StringUtils.trim(executorType))) {
+      // Calls mostly wait for network I/O: a cheap virtual thread per call
+      // avoids sizing a platform pool, concurrency being bounded by callers
+      // and by the HTTP connection pool
+      return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("twitter-consumer-virtual-", 1).factory());
+    }
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadFactory threadFactory = runnable -> {
+      Thread thread = new Thread(runnable, "twitter-consumer-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    return Executors.newFixedThreadPool(Math.max(consumerThreads, 1), threadFactory);
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.DefaultConnectionReuseStrategy;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TwitterHttpClientConfig {
+
+  public static final String TWITTER_HTTP_CLIENT        = "twitterHttpClient";
+
+  public static final String TWITTER_CONNECTION_MANAGER = "twitterConnectionManager";
+
+  @Value("${io.meeds.gamification.twitter.http.maxConnections:20}")
+  private int                maxConnections;
+
+  @Value("${io.meeds.gamification.twitter.http.maxConnectionsPerRoute:10}")
+  private int                maxConnectionsPerRoute;
+
+  @Value("${io.meeds.gamification.twitter.http.connectTimeoutMillis:10000}")
+  private int                connectTimeoutMillis;
+
+  @Value("${io.meeds.gamification.twitter.http.socketTimeoutMillis:30000}")
+  private int                socketTimeoutMillis;
+
+  @Value("${io.meeds.gamification.twitter.http.connectionRequestTimeoutMillis:10000}")
+  private int                connectionRequestTimeoutMillis;
+
+  @Value("${io.meeds.gamification.twitter.http.validateAfterInactivityMillis:2000}")
+  private int                validateAfterInactivityMillis;
+
+  @Value("${io.meeds.gamification.twitter.http.maxIdleSeconds:30}")
+  private long               maxIdleSeconds;
+
+  @Value("${io.meeds.gamification.twitter.http.keepAliveSeconds:30}")
+  private long               keepAliveSeconds;
+
+  /**
+   * @return the connections pool shared by all Twitter API calls. Connections
+   *         idle for longer than the configured delay are validated before
+   *         being leased again.
+   */
+  @Bean(name = TWITTER_CONNECTION_MANAGER, destroyMethod = "shutdown")
+  public PoolingHttpClientConnectionManager twitterConnectionManager() {
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(Math.max(maxConnections, 1));
+    connectionManager.setDefaultMaxPerRoute(Math.max(maxConnectionsPerRoute, 1));
+    connectionManager.setValidateAfterInactivity(validateAfterInactivityMillis);
+    return connectionManager;
+  }
+
+  /**
+   * @param connectionManager Twitter connections pool
+   * @return the {@link CloseableHttpClient} used to call Twitter API, bounding
+   *         each call by connect, read and pool lease timeouts, so that a hung
+   *         connection can't block its caller indefinitely. Expired and idle
+   *         connections are evicted from the pool by a background thread.
+   *         Responses content decoding is left to the caller, to be able to
+   *         account transferred bytes.
+   */
+  @Bean(name = TWITTER_HTTP_CLIENT, destroyMethod = "close")
+  public CloseableHttpClient twitterHttpClient(@Qualifier(TWITTER_CONNECTION_MANAGER)
+  PoolingHttpClientConnectionManager connectionManager) {
+    RequestConfig requestConfig = RequestConfig.custom()
+                                               .setCookieSpec(CookieSpecs.STANDARD)
+                                               .setConnectTimeout(connectTimeoutMillis)
+                                               .setSocketTimeout(socketTimeoutMillis)
+                                               .setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+                                               .build();
+    return HttpClients.custom()
+                      .setDefaultRequestConfig(requestConfig)
+                      .setDefaultCookieStore(new BasicCookieStore())
+                      .setConnectionManager(connectionManager)
+                      .setConnectionReuseStrategy(new DefaultConnectionReuseStrategy())
+                      .setKeepAliveStrategy(keepAliveStrategy())
+                      .disableContentCompression()
+                      .evictExpiredConnections()
+                      .evictIdleConnections(maxIdleSeconds, TimeUnit.SECONDS)
+                      .build();
+  }
+
+  private ConnectionKeepAliveStrategy keepAliveStrategy() {
+    long maxKeepAliveMillis = keepAliveSeconds * 1000;
+    return (response, context) -> {
+      // Honor the server Keep-Alive header, bounded by the configured delay
+      long keepAliveMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+      return keepAliveMillis > 0 ? Math.min(keepAliveMillis, maxKeepAliveMillis) : maxKeepAliveMillis;
+    };
+  }
+}
@@ -18,10 +18,18 @@
  */
 package io.meeds.twitter.gamification.dao;
 
+import java.util.Date;
+import java.util.List;
+
 import io.meeds.twitter.gamification.entity.TwitterAccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TwitterAccountDAO extends JpaRepository<TwitterAccountEntity, Long> {
 
   TwitterAccountEntity findTwitterAccountEntityByRemoteId(long remoteId);
+
+  @Query("SELECT a FROM TwitterAccounts a WHERE a.nextPollDate IS NULL OR a.nextPollDate <= :date")
+  List<TwitterAccountEntity> findDueAccounts(@Param("date") Date date);
 }
@@ -0,0 +1,42 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.meeds.twitter.gamification.entity.TwitterApiUsageEntity;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TwitterApiUsageDAO extends JpaRepository<TwitterApiUsageEntity, Long> {
+
+  List<TwitterApiUsageEntity> findByTokenHashAndDayGreaterThanEqualOrderByDayAsc(String tokenHash, LocalDate day);
+
+  @Modifying
+  @Query("UPDATE TwitterApiUsage u SET u.requestCount = u.requestCount + :requestCount, u.readCount = u.readCount + :readCount"
+      + " WHERE u.day = :day AND u.endpoint = :endpoint AND u.tokenHash = :tokenHash")
+  int incrementUsage(@Param("day") LocalDate day,
+                     @Param("endpoint") TwitterEndpoint endpoint,
+                     @Param("tokenHash") String tokenHash,
+                     @Param("requestCount") long requestCount,
+                     @Param("readCount") long readCount);
+}
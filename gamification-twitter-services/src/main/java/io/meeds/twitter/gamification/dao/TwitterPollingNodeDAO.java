@@ -0,0 +1,36 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.dao;
+
+import java.util.Date;
+import java.util.List;
+
+import io.meeds.twitter.gamification.entity.TwitterPollingNodeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TwitterPollingNodeDAO extends JpaRepository<TwitterPollingNodeEntity, String> {
+
+  List<TwitterPollingNodeEntity> findByHeartbeatDateAfterOrderByIdAsc(Date heartbeatDate);
+
+  @Modifying
+  @Query("DELETE FROM TwitterPollingNodes n WHERE n.heartbeatDate < :heartbeatDate")
+  int deleteByHeartbeatDateBefore(@Param("heartbeatDate") Date heartbeatDate);
+}
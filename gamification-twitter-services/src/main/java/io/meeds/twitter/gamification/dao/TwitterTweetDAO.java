@@ -18,11 +18,41 @@
  */
 package io.meeds.twitter.gamification.dao;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 import io.meeds.twitter.gamification.entity.TwitterTweetEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface TwitterTweetDAO extends JpaRepository<TwitterTweetEntity, Long> {
 
+  String LISTING_QUERY = "SELECT t.id AS id, t.tweetLink AS tweetLink, t.likeCount AS likeCount, t.retweetCount AS retweetCount"
+      + " FROM TwitterTweets t";
+
   TwitterTweetEntity findTwitterTweetEntityByTweetLink(String tweetLink);
 
+  @Query(value = LISTING_QUERY, countQuery = "SELECT COUNT(t) FROM TwitterTweets t")
+  Page<TwitterTweetListing> findListings(Pageable pageable);
+
+  @Query(LISTING_QUERY)
+  List<TwitterTweetListing> findListings();
+
+  @Query("SELECT t FROM TwitterTweets t WHERE t.nextPollDate IS NULL OR t.nextPollDate <= :date")
+  List<TwitterTweetEntity> findDueTweets(@Param("date") Date date);
+
+  @Query("SELECT t.id AS tweetId, l AS username FROM TwitterTweets t JOIN t.likers l WHERE t.id IN :ids")
+  List<TwitterTweetReactorUsername> findLegacyLikers(@Param("ids") Collection<Long> ids);
+
+  @Query("SELECT t.id AS tweetId, r AS username FROM TwitterTweets t JOIN t.retweeters r WHERE t.id IN :ids")
+  List<TwitterTweetReactorUsername> findLegacyRetweeters(@Param("ids") Collection<Long> ids);
+
+  @Modifying
+  @Query("UPDATE TwitterTweets t SET t.likerIds = :likerIds, t.retweeterIds = :retweeterIds WHERE t.id = :id")
+  int updateReactorIds(@Param("id") long id, @Param("likerIds") byte[] likerIds, @Param("retweeterIds") byte[] retweeterIds);
 }
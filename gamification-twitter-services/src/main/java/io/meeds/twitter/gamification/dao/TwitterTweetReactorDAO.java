@@ -0,0 +1,86 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.dao;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Removes the reactors usernames of a tweet, stored in TWITTER_TWEET_LIKERS and
+ * TWITTER_TWEET_RETWEETERS tables before reactors were identified by their
+ * Ids, with batched JDBC statements, so that the removal doesn't rewrite the
+ * whole tweet element collections.
+ */
+@Repository
+public class TwitterTweetReactorDAO {
+
+  private static final String LIKERS_TABLE     = "TWITTER_TWEET_LIKERS";
+
+  private static final String LIKER_COLUMN     = "LIKER_USERNAME";
+
+  private static final String RETWEETERS_TABLE = "TWITTER_TWEET_RETWEETERS";
+
+  private static final String RETWEETER_COLUMN = "RETWEETER_USERNAME";
+
+  @PersistenceContext
+  private EntityManager       entityManager;
+
+  @Value("${io.meeds.gamification.twitter.reactors.batchSize:100}")
+  private int                 batchSize;
+
+  public void removeLikers(long tweetId, Collection<String> likers) {
+    executeBatch("DELETE FROM " + LIKERS_TABLE + " WHERE TWEET_ID = ? AND " + LIKER_COLUMN + " = ?", tweetId, likers);
+  }
+
+  public void removeRetweeters(long tweetId, Collection<String> retweeters) {
+    executeBatch("DELETE FROM " + RETWEETERS_TABLE + " WHERE TWEET_ID = ? AND " + RETWEETER_COLUMN + " = ?",
+                 tweetId,
+                 retweeters);
+  }
+
+  private void executeBatch(String sql, long tweetId, Collection<String> usernames) {
+    if (usernames == null || usernames.isEmpty()) {
+      return;
+    }
+    entityManager.flush();
+    entityManager.unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) { // NOSONAR
+        int pendingCount = 0;
+        for (String username : usernames) {
+          statement.setLong(1, tweetId);
+          statement.setString(2, username);
+          statement.addBatch();
+          if (++pendingCount == batchSize) {
+            statement.executeBatch();
+            pendingCount = 0;
+          }
+        }
+        if (pendingCount > 0) {
+          statement.executeBatch();
+        }
+      }
+    });
+  }
+}
@@ -61,4 +61,16 @@ public class TwitterAccountEntity implements Serializable {
 
   @Column(name = "LAST_MENTION_TWEET_ID")
   private Long              lastMentionTweetId;
+
+  @Column(name = "NEXT_POLL_DATE")
+  private Date              nextPollDate;
+
+  @Column(name = "POLL_INTERVAL")
+  private Long              pollInterval;
+
+  @Column(name = "MENTION_GAP_SINCE_ID")
+  private Long              mentionGapSinceId;
+
+  @Column(name = "MENTION_GAP_UNTIL_ID")
+  private Long              mentionGapUntilId;
 }
@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import lombok.Data;
+
+@Entity(name = "TwitterApiUsage")
+@Table(name = "TWITTER_API_USAGE")
+@Data
+public class TwitterApiUsageEntity implements Serializable {
+
+  private static final long serialVersionUID = 6530248925618843297L;
+
+  @Id
+  @SequenceGenerator(name = "SEQ_TWITTER_API_USAGE_ID", sequenceName = "SEQ_TWITTER_API_USAGE_ID", allocationSize = 1)
+  @GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_TWITTER_API_USAGE_ID")
+  @Column(name = "ID")
+  private Long              id;
+
+  @Column(name = "USAGE_DAY", nullable = false)
+  private LocalDate         day;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "ENDPOINT", nullable = false)
+  private TwitterEndpoint   endpoint;
+
+  @Column(name = "TOKEN_HASH", nullable = false)
+  private String            tokenHash;
+
+  @Column(name = "REQUEST_COUNT", nullable = false)
+  private long              requestCount;
+
+  @Column(name = "READ_COUNT", nullable = false)
+  private long              readCount;
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import jakarta.persistence.*;
+
+import lombok.Data;
+
+@Entity(name = "TwitterJobLocks")
+@Table(name = "TWITTER_JOB_LOCKS")
+@Data
+public class TwitterJobLockEntity implements Serializable {
+
+  private static final long serialVersionUID = 5102374163092478335L;
+
+  @Id
+  @Column(name = "LOCK_NAME")
+  private String            name;
+
+  @Column(name = "OWNER", nullable = false)
+  private String            owner;
+
+  @Column(name = "EXPIRY_DATE", nullable = false)
+  private Date              expiryDate;
+
+  @Version
+  @Column(name = "VERSION")
+  private Long              version;
+}
@@ -19,6 +19,7 @@
 package io.meeds.twitter.gamification.entity;
 
 import java.io.Serializable;
+import java.util.Date;
 import java.util.Set;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -39,13 +40,33 @@ public class TwitterTweetEntity implements Serializable {
   @Column(name = "TWEET_LINK")
   private String            tweetLink;
 
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   @CollectionTable(name = "TWITTER_TWEET_LIKERS", joinColumns = @JoinColumn(name = "TWEET_ID"))
   @Column(name = "LIKER_USERNAME")
   private Set<String>       likers;
 
-  @ElementCollection(fetch = FetchType.EAGER)
+  @ElementCollection(fetch = FetchType.LAZY)
   @CollectionTable(name = "TWITTER_TWEET_RETWEETERS", joinColumns = @JoinColumn(name = "TWEET_ID"))
   @Column(name = "RETWEETER_USERNAME")
   private Set<String>       retweeters;
+
+  @Column(name = "LIKE_COUNT")
+  private Long              likeCount;
+
+  @Column(name = "RETWEET_COUNT")
+  private Long              retweetCount;
+
+  @Column(name = "NEXT_POLL_DATE")
+  private Date              nextPollDate;
+
+  @Column(name = "POLL_INTERVAL")
+  private Long              pollInterval;
+
+  @Lob
+  @Column(name = "LIKER_IDS")
+  private byte[]            likerIds;
+
+  @Lob
+  @Column(name = "RETWEETER_IDS")
+  private byte[]            retweeterIds;
 }
@@ -0,0 +1,48 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.exception;
+
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+public class TwitterCircuitOpenException extends TwitterConnectionException {
+
+  private final TwitterEndpoint endpoint;
+
+  private final long            openUntil;
+
+  public TwitterCircuitOpenException(TwitterEndpoint endpoint, long openUntil) {
+    super(endpoint == null ? "twitter.tokenRejected" : "twitter.endpointUnavailable." + endpoint.name());
+    this.endpoint = endpoint;
+    this.openUntil = openUntil;
+  }
+
+  /**
+   * @return the unavailable endpoint, or null when the bearer token was
+   *         rejected
+   */
+  public TwitterEndpoint getEndpoint() {
+    return endpoint;
+  }
+
+  /**
+   * @return epoch time, in seconds, until which calls are short-circuited
+   */
+  public long getOpenUntil() {
+    return openUntil;
+  }
+}
@@ -20,11 +20,26 @@ package io.meeds.twitter.gamification.exception;
 
 public class TwitterConnectionException extends Exception {
 
+  private final int statusCode;
+
   public TwitterConnectionException(String message) {
+    this(message, 0);
+  }
+
+  public TwitterConnectionException(String message, int statusCode) {
     super(message);
+    this.statusCode = statusCode;
   }
 
   public TwitterConnectionException(String message, Exception e) {
     super(message, e);
+    this.statusCode = 0;
+  }
+
+  /**
+   * @return HTTP status code returned by Twitter, 0 if not applicable
+   */
+  public int getStatusCode() {
+    return statusCode;
   }
 }
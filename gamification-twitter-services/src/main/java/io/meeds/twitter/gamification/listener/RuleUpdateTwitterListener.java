@@ -39,6 +39,8 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class RuleUpdateTwitterListener extends Listener<RuleDTO, String> {
@@ -80,11 +82,11 @@ public class RuleUpdateTwitterListener extends Listener<RuleDTO, String> {
                                       .toList();
 
     List<Tweet> tweets = twitterAccountService.getTweets();
+    Set<String> tweetLinks = tweets.stream().map(Tweet::getTweetLink).collect(Collectors.toSet());
 
     String bearerToken = twitterAccountService.getTwitterBearerToken();
     watchedTweets.forEach(watchedTweet -> {
-      Tweet tweet = twitterAccountService.getTweetByLink(watchedTweet);
-      if (tweet == null) {
+      if (!tweetLinks.contains(watchedTweet)) {
         if (StringUtils.isNotBlank(bearerToken)) {
           twitterAccountService.addTweetToWatch(watchedTweet);
         } else {
@@ -33,11 +33,39 @@ public class Tweet implements Cloneable {
 
   private String      tweetLink;
 
+  /**
+   * Usernames of likers stored before reactors were identified by their Ids
+   */
   private Set<String> likers;
 
+  /**
+   * Usernames of retweeters stored before reactors were identified by their
+   * Ids
+   */
   private Set<String> retweeters;
 
+  private Long        likeCount;
+
+  private Long        retweetCount;
+
+  private Long        pollInterval;
+
+  private Long        nextPollTime;
+
+  private long[]      likerIds;
+
+  private long[]      retweeterIds;
+
   public Tweet clone() { // NOSONAR
-    return new Tweet(tweetId, tweetLink, likers, retweeters);
+    return new Tweet(tweetId,
+                     tweetLink,
+                     likers,
+                     retweeters,
+                     likeCount,
+                     retweetCount,
+                     pollInterval,
+                     nextPollTime,
+                     likerIds,
+                     retweeterIds);
   }
 }
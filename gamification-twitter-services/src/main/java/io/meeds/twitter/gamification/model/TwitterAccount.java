@@ -45,6 +45,14 @@ public class TwitterAccount implements Cloneable {
 
   private long   lastMentionTweetId;
 
+  private Long   pollInterval;
+
+  private Long   nextPollTime;
+
+  private Long   mentionGapSinceId;
+
+  private Long   mentionGapUntilId;
+
   public TwitterAccount clone() { // NOSONAR
     return new TwitterAccount(id,
                               remoteId,
@@ -54,7 +62,11 @@ public class TwitterAccount implements Cloneable {
                               watchedBy,
                               updatedDate,
                               refreshDate,
-                              lastMentionTweetId);
+                              lastMentionTweetId,
+                              pollInterval,
+                              nextPollTime,
+                              mentionGapSinceId,
+                              mentionGapUntilId);
   }
 
 }
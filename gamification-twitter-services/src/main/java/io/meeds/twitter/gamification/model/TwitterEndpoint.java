@@ -0,0 +1,56 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.model;
+
+/**
+ * Twitter API endpoints consumed by the connector. Each endpoint has its own
+ * rate limit window on Twitter side.
+ */
+public enum TwitterEndpoint {
+
+  USER_BY_USERNAME(false),
+
+  USER_BY_ID(false),
+
+  USERS_BY_IDS(false),
+
+  TWEETS_LOOKUP(true),
+
+  MENTIONS(true),
+
+  LIKING_USERS(false),
+
+  RETWEETED_BY(false),
+
+  RATE_LIMIT_STATUS(false);
+
+  private final boolean postRead;
+
+  TwitterEndpoint(boolean postRead) {
+    this.postRead = postRead;
+  }
+
+  /**
+   * @return true if the endpoint returns posts, which are counted in the
+   *         monthly cap of Twitter API, false if it returns users or other
+   *         items
+   */
+  public boolean isPostRead() {
+    return postRead;
+  }
+}
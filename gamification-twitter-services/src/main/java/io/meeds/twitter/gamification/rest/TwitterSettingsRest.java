@@ -18,7 +18,11 @@
  */
 package io.meeds.twitter.gamification.rest;
 
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.ConnectionPoolStatus;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
 import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TransferStatistics;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import io.meeds.twitter.gamification.service.TwitterService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,6 +39,8 @@ import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("settings")
 @Tag(name = "twitter/settings", description = "Manage and access twitter settings") // NOSONAR
@@ -97,4 +103,53 @@ public class TwitterSettingsRest {
       throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
     }
   }
+
+  @GetMapping(path = "rateLimits")
+  @Secured("rewarding")
+  @Operation(summary = "Retrieves the rate limit state of each consumed Twitter API endpoint", method = "GET")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"),
+      @ApiResponse(responseCode = "500", description = "Internal server error") })
+  public List<RateLimitStatus> getRateLimitStatuses() {
+    return twitterConsumerService.getRateLimitStatuses();
+  }
+
+  @GetMapping(path = "transferStatistics")
+  @Secured("rewarding")
+  @Operation(summary = "Retrieves the transferred and decoded bytes of each consumed Twitter API endpoint responses", method = "GET")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"),
+      @ApiResponse(responseCode = "500", description = "Internal server error") })
+  public List<TransferStatistics> getTransferStatistics() {
+    return twitterConsumerService.getTransferStatistics();
+  }
+
+  @GetMapping(path = "apiUsage")
+  @Secured("rewarding")
+  @Operation(summary = "Retrieves the Twitter API consumption of the current month with the stored bearer token", method = "GET")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"),
+      @ApiResponse(responseCode = "404", description = "Resource not found"),
+      @ApiResponse(responseCode = "500", description = "Internal server error") })
+  public ApiUsageStatus getApiUsageStatus(HttpServletRequest request) {
+    try {
+      String bearerToken = twitterService.getTwitterBearerToken(request.getRemoteUser());
+      if (StringUtils.isBlank(bearerToken)) {
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Twitter bearer token isn't configured");
+      }
+      return twitterConsumerService.getApiUsageStatus(bearerToken);
+    } catch (IllegalAccessException e) {
+      throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, e.getMessage());
+    }
+  }
+
+  @GetMapping(path = "connectionPool")
+  @Secured("rewarding")
+  @Operation(summary = "Retrieves the usage statistics of the connections pool used to call Twitter API", method = "GET")
+  @ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Request fulfilled"),
+      @ApiResponse(responseCode = "401", description = "Unauthorized operation"),
+      @ApiResponse(responseCode = "500", description = "Internal server error") })
+  public ConnectionPoolStatus getConnectionPoolStatus() {
+    return twitterConsumerService.getConnectionPoolStatus();
+  }
 }
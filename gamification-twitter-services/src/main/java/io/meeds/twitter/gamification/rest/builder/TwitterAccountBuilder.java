@@ -25,6 +25,10 @@ import io.meeds.twitter.gamification.service.TwitterService;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import org.springframework.data.domain.Page;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 public class TwitterAccountBuilder {
 
   private TwitterAccountBuilder() {
@@ -39,11 +43,29 @@ public class TwitterAccountBuilder {
       return null;
     }
     RemoteTwitterAccount remoteTwitterAccount = null;
-    if (Boolean.TRUE.equals(tokenStatus != null && tokenStatus.getIsValid() != null && tokenStatus.getIsValid())
-        && tokenStatus.getRemaining() > 0) {
+    if (isTokenUsable(tokenStatus)) {
       remoteTwitterAccount = twitterConsumerService.retrieveTwitterAccount(twitterAccount.getRemoteId(), twitterBearerToken);
     }
+    return toRestEntity(twitterAccount, remoteTwitterAccount);
+  }
+
+  public static Page<TwitterAccountRestEntity> toRestEntities(TwitterService twitterAccountService,
+                                                              TwitterConsumerService twitterConsumerService,
+                                                              Page<TwitterAccount> twitterAccounts) {
+    String twitterBearerToken = twitterAccountService.getTwitterBearerToken();
+    TokenStatus tokenStatus = twitterConsumerService.checkTwitterTokenStatus(twitterBearerToken);
+    Map<Long, RemoteTwitterAccount> remoteTwitterAccounts = Collections.emptyMap();
+    if (isTokenUsable(tokenStatus) && twitterAccounts.hasContent()) {
+      // Resolve the whole page using batch lookups
+      List<Long> twitterRemoteIds = twitterAccounts.stream().map(TwitterAccount::getRemoteId).toList();
+      remoteTwitterAccounts = twitterConsumerService.retrieveTwitterAccounts(twitterRemoteIds, twitterBearerToken);
+    }
+    Map<Long, RemoteTwitterAccount> pageRemoteTwitterAccounts = remoteTwitterAccounts;
+    return twitterAccounts.map(twitterAccount -> toRestEntity(twitterAccount,
+                                                              pageRemoteTwitterAccounts.get(twitterAccount.getRemoteId())));
+  }
 
+  private static TwitterAccountRestEntity toRestEntity(TwitterAccount twitterAccount, RemoteTwitterAccount remoteTwitterAccount) {
     return new TwitterAccountRestEntity(twitterAccount.getId(),
                                         String.valueOf(twitterAccount.getRemoteId()),
                                         twitterAccount.getIdentifier(),
@@ -56,15 +78,8 @@ public class TwitterAccountBuilder {
                                         remoteTwitterAccount != null ? remoteTwitterAccount.getAvatarUrl() : null);
   }
 
-  public static Page<TwitterAccountRestEntity> toRestEntities(TwitterService twitterAccountService,
-                                                              TwitterConsumerService twitterConsumerService,
-                                                              Page<TwitterAccount> twitterAccounts) {
-    String twitterBearerToken = twitterAccountService.getTwitterBearerToken();
-    TokenStatus tokenStatus = twitterConsumerService.checkTwitterTokenStatus(twitterBearerToken);
-
-    return twitterAccounts.map(twitterAccount -> toRestEntity(twitterBearerToken,
-                                                              tokenStatus,
-                                                              twitterConsumerService,
-                                                              twitterAccount));
+  private static boolean isTokenUsable(TokenStatus tokenStatus) {
+    return tokenStatus != null && Boolean.TRUE.equals(tokenStatus.getIsValid()) && tokenStatus.getRemaining() != null
+        && tokenStatus.getRemaining() > 0;
   }
 }
@@ -0,0 +1,175 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.storage.TwitterJobLockStorage;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * A cluster wide lock, backed by a leased database row, ensuring that a job is
+ * run by a single node at a time. While a job runs, its lease is renewed
+ * periodically by a heartbeat. When the job ends, the lease is kept until its
+ * expiry so that the same node runs the next cycles; when the owner node dies,
+ * another node acquires the lock once the lease expired.
+ */
+@Component
+public class TwitterJobLock {
+
+  private static final Log                      LOG        = ExoLogger.getLogger(TwitterJobLock.class);
+
+  private final String                          owner      = computeOwner();
+
+  private final Map<String, ScheduledFuture<?>> heartbeats = new ConcurrentHashMap<>();
+
+  private final Map<String, Boolean>            heldLocks  = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService        heartbeatExecutor;
+
+  @Autowired
+  private TwitterJobLockStorage                 jobLockStorage;
+
+  @Value("${io.meeds.gamification.twitter.lock.leaseSeconds:300}")
+  private long                                  leaseSeconds;
+
+  public TwitterJobLock() {
+    heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "twitter-job-lock-heartbeat");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Acquires the lock, or renews it when already owned by the current node,
+   * and starts renewing its lease until {@link #unlock(String)} is called.
+   *
+   * @param name lock name
+   * @return true if the lock is acquired, false if owned by another node
+   */
+  public boolean tryLock(String name) {
+    if (!jobLockStorage.tryAcquire(name, owner, getLeaseMillis())) {
+      heldLocks.remove(name);
+      return false;
+    }
+    heldLocks.put(name, Boolean.TRUE);
+    long heartbeatMillis = Math.max(getLeaseMillis() / 3, 1);
+    heartbeats.computeIfAbsent(name,
+                               key -> heartbeatExecutor.scheduleWithFixedDelay(() -> renew(key),
+                                                                               heartbeatMillis,
+                                                                               heartbeatMillis,
+                                                                               TimeUnit.MILLISECONDS));
+    return true;
+  }
+
+  /**
+   * @param name lock name
+   * @return true if the lock is still owned by the current node, false if its
+   *         lease couldn't be renewed
+   */
+  public boolean isLocked(String name) {
+    return heldLocks.containsKey(name);
+  }
+
+  /**
+   * Stops renewing the lock lease. The lease itself is kept until its expiry
+   * so that the current node keeps running the next job cycles.
+   *
+   * @param name lock name
+   */
+  public void unlock(String name) {
+    ScheduledFuture<?> heartbeat = heartbeats.remove(name);
+    if (heartbeat != null) {
+      heartbeat.cancel(false);
+    }
+  }
+
+  /**
+   * Stops renewing the lock lease and releases it, so that another node can
+   * acquire it without waiting for its expiry.
+   *
+   * @param name lock name
+   */
+  public void release(String name) {
+    unlock(name);
+    heldLocks.remove(name);
+    jobLockStorage.release(name, owner);
+  }
+
+  @PreDestroy
+  public void destroy() {
+    heartbeatExecutor.shutdownNow();
+    // Let another node take over without waiting for the leases expiry
+    heldLocks.keySet().forEach(name -> {
+      try {
+        jobLockStorage.release(name, owner);
+      } catch (RuntimeException e) {
+        LOG.debug("Error while releasing lock {}", name, e);
+      }
+    });
+    heldLocks.clear();
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  private void renew(String name) {
+    try {
+      if (!jobLockStorage.renew(name, owner, getLeaseMillis())) {
+        LOG.warn("Lock {} was acquired by another node while running", name);
+        heldLocks.remove(name);
+        unlock(name);
+      }
+    } catch (RuntimeException e) {
+      // Keep trying to renew until the lease expires
+      LOG.warn("Error while renewing lock {} lease", name, e);
+    }
+  }
+
+  private long getLeaseMillis() {
+    return Math.max(leaseSeconds, 1) * 1000;
+  }
+
+  private static String computeOwner() {
+    String hostName;
+    try {
+      hostName = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      hostName = "unknown";
+    }
+    return hostName + "-" + UUID.randomUUID();
+  }
+}
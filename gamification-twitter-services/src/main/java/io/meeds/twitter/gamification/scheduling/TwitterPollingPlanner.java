@@ -0,0 +1,269 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.gamification.constant.DateFilterType;
+import io.meeds.gamification.constant.EntityStatusType;
+import io.meeds.gamification.model.RuleDTO;
+import io.meeds.gamification.model.filter.RuleFilter;
+import io.meeds.gamification.service.RuleService;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.service.TwitterConsumerService;
+import io.meeds.twitter.gamification.utils.Utils;
+
+/**
+ * Plans the Twitter API calls of a polling cycle within the remaining budget
+ * of the consumed endpoints. Due items are served by decreasing priority,
+ * computed from their staleness, their recent activity and the number of
+ * enabled rules referencing them. Each item is charged the number of pages it
+ * is expected to retrieve, which is an estimate since the actual pages count
+ * is only known once retrieved. Items which couldn't be served in a cycle get
+ * their priority raised in the next cycles until they are served.
+ */
+@Component
+public class TwitterPollingPlanner {
+
+  private static final Log       LOG                        = ExoLogger.getLogger(TwitterPollingPlanner.class);
+
+  private static final String    ACCOUNT_KEY_PREFIX         = "account-";
+
+  private static final String    TWEET_KEY_PREFIX           = "tweet-";
+
+  private static final double    NEVER_POLLED_STALENESS_MIN = 24 * 60d;
+
+  private static final long      REACTORS_PAGE_SIZE         = 100;
+
+  private final Map<String, Integer> carryOvers             = new ConcurrentHashMap<>();
+
+  @Autowired
+  private TwitterConsumerService twitterConsumerService;
+
+  @Autowired
+  private RuleService            ruleService;
+
+  @Value("${io.meeds.gamification.twitter.polling.initialIntervalSeconds:900}")
+  private long                   initialInterval;
+
+  @Value("${io.meeds.gamification.twitter.planner.carryOverBoost:0.5}")
+  private double                 carryOverBoost;
+
+  @Value("${io.meeds.gamification.twitter.pagination.maxPages:5}")
+  private int                    maxPages;
+
+  /**
+   * @param twitterAccounts due {@link TwitterAccount}s
+   * @return the accounts to poll in the current cycle, by decreasing priority,
+   *         within the remaining budget of mentions endpoint
+   */
+  public List<TwitterAccount> planAccounts(List<TwitterAccount> twitterAccounts) {
+    if (twitterAccounts.isEmpty()) {
+      pruneCarryOvers(ACCOUNT_KEY_PREFIX, Set.of());
+      return twitterAccounts;
+    }
+    Map<String, Long> rulesCount = countRules(Utils.ACCOUNT_ID, Function.identity());
+    long now = System.currentTimeMillis();
+    List<PlannedItem<TwitterAccount>> plannedItems =
+        twitterAccounts.stream()
+                       .map(twitterAccount -> {
+                         String key = ACCOUNT_KEY_PREFIX + twitterAccount.getId();
+                         double priority = computePriority(key,
+                                                           twitterAccount.getPollInterval(),
+                                                           twitterAccount.getNextPollTime(),
+                                                           rulesCount.getOrDefault(String.valueOf(twitterAccount.getRemoteId()),
+                                                                                   0L),
+                                                           now);
+                         return new PlannedItem<>(twitterAccount,
+                                                  key,
+                                                  priority,
+                                                  new long[] { getExpectedMentionsPages(twitterAccount) });
+                       })
+                       .toList();
+    pruneCarryOvers(ACCOUNT_KEY_PREFIX, plannedItems);
+    return plan(plannedItems, new long[] { getRemainingBudget(TwitterEndpoint.MENTIONS) });
+  }
+
+  /**
+   * @param tweets due {@link Tweet}s to retrieve reactions for
+   * @return the tweets to poll in the current cycle, by decreasing priority,
+   *         within the remaining budget of reactions endpoints
+   */
+  public List<Tweet> planTweets(List<Tweet> tweets) {
+    if (tweets.isEmpty()) {
+      pruneCarryOvers(TWEET_KEY_PREFIX, Set.of());
+      return tweets;
+    }
+    Map<String, Long> rulesCount = countRules(Utils.TWEET_LINK, Utils::extractTweetId);
+    long now = System.currentTimeMillis();
+    List<PlannedItem<Tweet>> plannedItems =
+        tweets.stream()
+              .map(tweet -> {
+                String key = TWEET_KEY_PREFIX + tweet.getTweetId();
+                String tweetId = Utils.extractTweetId(tweet.getTweetLink());
+                double priority = computePriority(key,
+                                                  tweet.getPollInterval(),
+                                                  tweet.getNextPollTime(),
+                                                  tweetId == null ? 0L : rulesCount.getOrDefault(tweetId, 0L),
+                                                  now);
+                // Each tweet needs calls to both likers and retweeters endpoints
+                return new PlannedItem<>(tweet,
+                                         key,
+                                         priority,
+                                         new long[] { getExpectedReactorsPages(tweet.getLikerIds(), tweet.getLikeCount()),
+                                                      getExpectedReactorsPages(tweet.getRetweeterIds(),
+                                                                               tweet.getRetweetCount()) });
+              })
+              .toList();
+    pruneCarryOvers(TWEET_KEY_PREFIX, plannedItems);
+    return plan(plannedItems,
+                new long[] { getRemainingBudget(TwitterEndpoint.LIKING_USERS),
+                             getRemainingBudget(TwitterEndpoint.RETWEETED_BY) });
+  }
+
+  private <T> List<T> plan(List<PlannedItem<T>> plannedItems, long[] budgets) {
+    List<PlannedItem<T>> sortedItems = plannedItems.stream()
+                                                   .sorted(Comparator.comparingDouble((PlannedItem<T> item) -> item.priority())
+                                                                     .reversed())
+                                                   .toList();
+    List<T> servedItems = new ArrayList<>();
+    long[] remainingBudgets = budgets.clone();
+    for (PlannedItem<T> plannedItem : sortedItems) {
+      if (isAffordable(remainingBudgets, plannedItem.costs())) {
+        for (int i = 0; i < remainingBudgets.length; i++) {
+          remainingBudgets[i] -= plannedItem.costs()[i];
+        }
+        servedItems.add(plannedItem.item());
+        carryOvers.remove(plannedItem.key());
+      } else {
+        carryOvers.merge(plannedItem.key(), 1, Integer::sum);
+      }
+    }
+    if (servedItems.size() < sortedItems.size()) {
+      LOG.info("Twitter API budget allows to poll {}/{} due items, remaining ones are carried over",
+               servedItems.size(),
+               sortedItems.size());
+    }
+    return servedItems;
+  }
+
+  private boolean isAffordable(long[] remainingBudgets, long[] costs) {
+    for (int i = 0; i < remainingBudgets.length; i++) {
+      if (remainingBudgets[i] < costs[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Forgets the carried over items which aren't due anymore, typically
+   * unwatched items or items assigned to another node.
+   */
+  private void pruneCarryOvers(String keyPrefix, List<? extends PlannedItem<?>> plannedItems) {
+    pruneCarryOvers(keyPrefix, plannedItems.stream().map(PlannedItem::key).collect(Collectors.toSet()));
+  }
+
+  private void pruneCarryOvers(String keyPrefix, Set<String> plannedKeys) {
+    carryOvers.keySet().removeIf(key -> key.startsWith(keyPrefix) && !plannedKeys.contains(key));
+  }
+
+  private long getExpectedMentionsPages(TwitterAccount twitterAccount) {
+    if (twitterAccount.getMentionGapUntilId() != null) {
+      // A truncated retrieval left a gap, retrieved before the new mentions
+      return getMaxPages() + 1L;
+    } else {
+      return 1;
+    }
+  }
+
+  private long getExpectedReactorsPages(long[] knownReactorIds, Long reactionsCount) {
+    if (knownReactorIds != null && knownReactorIds.length > 0) {
+      // Retrieval stops at the first page including known reactors
+      return 1;
+    }
+    long count = reactionsCount == null ? 0 : reactionsCount;
+    return Math.min(Math.max((count + REACTORS_PAGE_SIZE - 1) / REACTORS_PAGE_SIZE, 1), getMaxPages());
+  }
+
+  private int getMaxPages() {
+    return Math.max(maxPages, 1);
+  }
+
+  private double computePriority(String key, Long pollInterval, Long nextPollTime, long rulesCount, long now) {
+    long interval = pollInterval == null || pollInterval <= 0 ? initialInterval : pollInterval;
+    double stalenessMinutes;
+    if (nextPollTime == null) {
+      stalenessMinutes = NEVER_POLLED_STALENESS_MIN;
+    } else {
+      long lastPollTime = nextPollTime - interval * 1000;
+      stalenessMinutes = Math.max(now - lastPollTime, 0) / 60000d;
+    }
+    // Items polled at a shorter interval recently produced new activity
+    double activity = (double) Math.max(initialInterval, 1) / Math.max(interval, 1);
+    double carryOver = 1 + carryOverBoost * carryOvers.getOrDefault(key, 0);
+    return (1 + stalenessMinutes) * activity * (1 + rulesCount) * carryOver;
+  }
+
+  private long getRemainingBudget(TwitterEndpoint endpoint) {
+    return twitterConsumerService.getRateLimitStatuses()
+                                 .stream()
+                                 .filter(status -> status.getEndpoint() == endpoint)
+                                 .map(RateLimitStatus::getRemaining)
+                                 .filter(remaining -> remaining != null)
+                                 .findFirst()
+                                 .orElse(Long.MAX_VALUE);
+  }
+
+  private Map<String, Long> countRules(String propertyName, Function<String, String> propertyValueMapper) {
+    RuleFilter ruleFilter = new RuleFilter();
+    ruleFilter.setEventType(Utils.CONNECTOR_NAME);
+    ruleFilter.setStatus(EntityStatusType.ENABLED);
+    ruleFilter.setDateFilterType(DateFilterType.ACTIVE);
+    ruleFilter.setAllSpaces(true);
+    List<RuleDTO> rules = ruleService.getRules(ruleFilter, 0, -1);
+    return rules.stream()
+                .filter(rule -> rule.getEvent() != null && rule.getEvent().getProperties() != null)
+                .map(rule -> rule.getEvent().getProperties().get(propertyName))
+                .filter(StringUtils::isNotBlank)
+                .map(propertyValueMapper)
+                .filter(StringUtils::isNotBlank)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+  }
+
+  private record PlannedItem<T>(T item, String key, double priority, long[] costs) {
+  }
+}
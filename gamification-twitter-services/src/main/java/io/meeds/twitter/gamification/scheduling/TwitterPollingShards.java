@@ -0,0 +1,145 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.storage.TwitterPollingNodeStorage;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Splits watched items polling between cluster nodes. Items are distributed
+ * by hash of their remote id into a fixed number of shards, which are
+ * assigned in turn to the live nodes registered in the membership table.
+ * Each shard is guarded by a {@link TwitterJobLock}, so that a shard is never
+ * processed by two nodes at the same time, even when nodes don't agree yet on
+ * the cluster membership while nodes join or leave.
+ */
+@Component
+public class TwitterPollingShards {
+
+  private static final Log          LOG               = ExoLogger.getLogger(TwitterPollingShards.class);
+
+  public static final String        SHARD_LOCK_PREFIX = "TwitterRemoteUpdateShard-";
+
+  private static final long         HASH_MULTIPLIER   = 0x9E3779B97F4A7C15L;
+
+  @Autowired
+  private TwitterJobLock            jobLock;
+
+  @Autowired
+  private TwitterPollingNodeStorage pollingNodeStorage;
+
+  @Value("${io.meeds.gamification.twitter.sharding.shards:16}")
+  private int                       shardsCount;
+
+  @Value("${io.meeds.gamification.twitter.sharding.nodeTimeoutSeconds:180}")
+  private long                      nodeTimeoutSeconds;
+
+  /**
+   * Registers the current node as alive and removes the dead ones, then
+   * acquires the locks of the shards assigned to it and releases the ones
+   * which were reassigned to other nodes.
+   *
+   * @return the shards to poll by the current node, which locks are renewed
+   *         until {@link #unlockShards(Set)} is called
+   */
+  public Set<Integer> claimShards() {
+    String nodeId = jobLock.getOwner();
+    pollingNodeStorage.heartbeat(nodeId);
+    Date liveHeartbeatDate = new Date(System.currentTimeMillis() - nodeTimeoutSeconds * 1000);
+    int removedNodes = pollingNodeStorage.removeDeadNodes(liveHeartbeatDate);
+    if (removedNodes > 0) {
+      LOG.info("{} dead Twitter polling nodes removed", removedNodes);
+    }
+    List<String> liveNodes = pollingNodeStorage.getLiveNodes(liveHeartbeatDate);
+    int nodeIndex = liveNodes.indexOf(nodeId);
+    if (nodeIndex < 0) {
+      return Collections.emptySet();
+    }
+    Set<Integer> claimedShards = new TreeSet<>();
+    for (int shard = 0; shard < getShardsCount(); shard++) {
+      String lockName = getLockName(shard);
+      if (shard % liveNodes.size() == nodeIndex) {
+        if (jobLock.tryLock(lockName)) {
+          claimedShards.add(shard);
+        }
+      } else if (jobLock.isLocked(lockName)) {
+        LOG.debug("Release Twitter polling shard {} reassigned to another node", shard);
+        jobLock.release(lockName);
+      }
+    }
+    return claimedShards;
+  }
+
+  /**
+   * @param shard shard index
+   * @return true if the shard lock is still owned by the current node
+   */
+  public boolean isLocked(int shard) {
+    return jobLock.isLocked(getLockName(shard));
+  }
+
+  /**
+   * Stops renewing the claimed shards locks
+   *
+   * @param shards claimed shards
+   */
+  public void unlockShards(Set<Integer> shards) {
+    shards.forEach(shard -> jobLock.unlock(getLockName(shard)));
+  }
+
+  /**
+   * @param remoteId watched item remote id
+   * @return shard index of the item
+   */
+  public int getShard(long remoteId) {
+    // Spread sequential ids evenly between shards
+    long hash = remoteId * HASH_MULTIPLIER;
+    return Math.floorMod((int) (hash ^ (hash >>> 32)), getShardsCount());
+  }
+
+  @PreDestroy
+  public void destroy() {
+    try {
+      pollingNodeStorage.removeNode(jobLock.getOwner());
+    } catch (RuntimeException e) {
+      LOG.debug("Error while removing node from Twitter polling nodes", e);
+    }
+  }
+
+  private int getShardsCount() {
+    return Math.max(shardsCount, 1);
+  }
+
+  private String getLockName(int shard) {
+    return SHARD_LOCK_PREFIX + shard;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling.task;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetReactors;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.utils.Utils;
+
+/**
+ * Differences between the stored reactors of a tweet and the retrieved ones,
+ * computed in a single pass over the retrieved reactors. Stored reactor Ids
+ * are only walked when some of them aren't retrieved anymore. Reactors stored
+ * by username before reactors were identified by their Ids are recognized by
+ * their username, so that their reactions aren't triggered again, and are
+ * reported as migrated. The same result provides the triggers of new reactions
+ * and the changes to persist.
+ */
+public final class TweetReactionsDiff {
+
+  private static final long[] NO_IDS = new long[0];
+
+  private final long          remoteTweetId;
+
+  private final ReactorsDiff  likersDiff;
+
+  private final ReactorsDiff  retweetersDiff;
+
+  private TweetReactionsDiff(long remoteTweetId, ReactorsDiff likersDiff, ReactorsDiff retweetersDiff) {
+    this.remoteTweetId = remoteTweetId;
+    this.likersDiff = likersDiff;
+    this.retweetersDiff = retweetersDiff;
+  }
+
+  /**
+   * @param tweet {@link Tweet} with its stored reactors
+   * @param likers retrieved likers
+   * @param retweeters retrieved retweeters
+   * @return {@link TweetReactionsDiff} between stored and retrieved reactors
+   */
+  public static TweetReactionsDiff compute(Tweet tweet, TweetReactors likers, TweetReactors retweeters) {
+    ReactorsDiff likersDiff = diff(tweet.getLikerIds(), tweet.getLikers(), likers);
+    ReactorsDiff retweetersDiff = diff(tweet.getRetweeterIds(), tweet.getRetweeters(), retweeters);
+    // Parsed once for all triggers of the tweet
+    String tweetId = Utils.extractTweetId(tweet.getTweetLink());
+    return new TweetReactionsDiff(StringUtils.isNumeric(tweetId) ? Long.parseLong(tweetId) : 0,
+                                  likersDiff,
+                                  retweetersDiff);
+  }
+
+  /**
+   * @return true if some reactors were added, removed or migrated
+   */
+  public boolean isChanged() {
+    return likersDiff.isChanged() || retweetersDiff.isChanged();
+  }
+
+  /**
+   * @return true if some reactors stored by username were retrieved with
+   *         their Ids
+   */
+  public boolean hasMigratedReactors() {
+    return !likersDiff.migrated().isEmpty() || !retweetersDiff.migrated().isEmpty();
+  }
+
+  /**
+   * @return {@link List} of {@link TwitterTrigger} of added reactions, likes
+   *         first
+   */
+  public List<TwitterTrigger> getTriggers() {
+    List<TwitterTrigger> triggers = new ArrayList<>(likersDiff.added().size() + retweetersDiff.added().size());
+    addTriggers(triggers, Utils.LIKE_TWEET_EVENT_NAME, likersDiff.added().values());
+    addTriggers(triggers, Utils.RETWEET_TWEET_EVENT_NAME, retweetersDiff.added().values());
+    return triggers;
+  }
+
+  public Map<Long, String> getAddedLikers() {
+    return Collections.unmodifiableMap(likersDiff.added());
+  }
+
+  public long[] getRemovedLikerIds() {
+    return likersDiff.removedIds().clone();
+  }
+
+  public Set<String> getMigratedLikers() {
+    return Collections.unmodifiableSet(likersDiff.migrated());
+  }
+
+  public Map<Long, String> getAddedRetweeters() {
+    return Collections.unmodifiableMap(retweetersDiff.added());
+  }
+
+  public long[] getRemovedRetweeterIds() {
+    return retweetersDiff.removedIds().clone();
+  }
+
+  public Set<String> getMigratedRetweeters() {
+    return Collections.unmodifiableSet(retweetersDiff.migrated());
+  }
+
+  private static ReactorsDiff diff(long[] knownIds, Set<String> legacyUsernames, TweetReactors retrieved) {
+    long[] known = knownIds == null ? NO_IDS : knownIds;
+    long[] retrievedIds = retrieved.getIds() == null ? NO_IDS : retrieved.getIds();
+    Map<Long, String> added = new HashMap<>();
+    Set<String> migrated = new HashSet<>();
+    if (retrieved.getUsernames() != null) {
+      retrieved.getUsernames().forEach((id, username) -> {
+        if (Arrays.binarySearch(known, id) < 0) {
+          if (legacyUsernames != null && legacyUsernames.contains(username)) {
+            migrated.add(username);
+          } else {
+            added.put(id, username);
+          }
+        }
+      });
+    }
+    // Retrieved Ids which aren't added nor migrated are known ones
+    int retainedCount = retrievedIds.length - added.size() - migrated.size();
+    long[] removedIds = retainedCount < known.length ? difference(known, retrievedIds) : NO_IDS;
+    return new ReactorsDiff(added, migrated, removedIds);
+  }
+
+  private static long[] difference(long[] sortedIds, long[] sortedExcludedIds) {
+    long[] ids = new long[sortedIds.length];
+    int count = 0;
+    int j = 0;
+    for (long id : sortedIds) {
+      while (j < sortedExcludedIds.length && sortedExcludedIds[j] < id) {
+        j++;
+      }
+      if (j == sortedExcludedIds.length || sortedExcludedIds[j] != id) {
+        ids[count++] = id;
+      }
+    }
+    return Arrays.copyOf(ids, count);
+  }
+
+  private void addTriggers(List<TwitterTrigger> triggers, String trigger, Iterable<String> usernames) {
+    for (String username : usernames) {
+      if (username != null) {
+        triggers.add(new TwitterTrigger(trigger, username, remoteTweetId, "tweet", 0));
+      }
+    }
+  }
+
+  private record ReactorsDiff(Map<Long, String> added, Set<String> migrated, long[] removedIds) {
+
+    private boolean isChanged() {
+      return !added.isEmpty() || !migrated.isEmpty() || removedIds.length > 0;
+    }
+  }
+}
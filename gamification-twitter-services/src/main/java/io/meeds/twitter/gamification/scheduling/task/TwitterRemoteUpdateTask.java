@@ -18,11 +18,18 @@
 package io.meeds.twitter.gamification.scheduling.task;
 
 import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.scheduling.TwitterPollingPlanner;
+import io.meeds.twitter.gamification.scheduling.TwitterPollingShards;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import io.meeds.twitter.gamification.service.TwitterService;
 import io.meeds.twitter.gamification.service.TwitterTriggerService;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
 import io.meeds.twitter.gamification.utils.Utils;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -32,11 +39,21 @@ import org.exoplatform.services.log.Log;
 
 import org.exoplatform.commons.api.persistence.ExoTransactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
 /**
  * A service that will manage the periodic updating of twitter events.
@@ -55,81 +72,317 @@ public class TwitterRemoteUpdateTask {
   @Autowired
   private TwitterTriggerService  twitterTriggerService;
 
-  @ExoTransactional
-  @Scheduled(cron = "${io.meeds.gamification.TwitterAccountRemoteUpdate.expression:0 */15 * * * ?}")
+  @Autowired
+  private TwitterPollingShards   pollingShards;
+
+  @Autowired
+  private TwitterPollingPlanner  pollingPlanner;
+
+  @Autowired
+  private TwitterApiUsageLedger  usageLedger;
+
+  @Value("${io.meeds.gamification.twitter.update.parallel:true}")
+  private boolean                parallel;
+
+  @Value("${io.meeds.gamification.twitter.update.mentionsConcurrency:4}")
+  private int                    mentionsConcurrency;
+
+  @Value("${io.meeds.gamification.twitter.update.reactionsConcurrency:4}")
+  private int                    reactionsConcurrency;
+
+  @Scheduled(cron = "${io.meeds.gamification.TwitterAccountRemoteUpdate.expression:0 * * * * ?}")
   public void execute() {
     String bearerToken = twitterAccountService.getTwitterBearerToken();
     if (StringUtils.isBlank(bearerToken)) {
       return;
     }
-    List<TwitterAccount> twitterAccounts = twitterAccountService.getTwitterAccounts();
-    if (!twitterAccounts.isEmpty()) {
-      twitterAccounts.forEach(twitterAccount -> processTwitterAccount(twitterAccount, bearerToken));
+    if (usageLedger.isCapReached()) {
+      LOG.info("Twitter API monthly cap reached, skip polling until next month");
+      return;
     }
-    List<Tweet> tweets = twitterAccountService.getTweets();
-    if (!tweets.isEmpty()) {
-      tweets.forEach(tweet -> processTweetReactionsUpdate(tweet, bearerToken));
+    // Poll only the items of the shards assigned to the current node
+    Set<Integer> shards = pollingShards.claimShards();
+    if (shards.isEmpty()) {
+      LOG.debug("No Twitter polling shard assigned to the current node");
+      return;
+    }
+    try {
+      updateRemoteItems(bearerToken, shards);
+    } finally {
+      pollingShards.unlockShards(shards);
     }
   }
 
-  private void processTwitterAccount(TwitterAccount twitterAccount, String bearerToken) {
-    try {
-      List<TwitterTrigger> mentionTriggers = twitterConsumerService.getMentionEvents(twitterAccount,
-                                                                                     twitterAccount.getLastMentionTweetId(),
-                                                                                     bearerToken);
+  private void updateRemoteItems(String bearerToken, Set<Integer> shards) {
+    Semaphore mentionsPermits = new Semaphore(getConcurrency(mentionsConcurrency));
+    Semaphore reactionsPermits = new Semaphore(getConcurrency(reactionsConcurrency));
 
-      if (CollectionUtils.isNotEmpty(mentionTriggers)) {
-        processMentionTriggers(mentionTriggers, twitterAccount);
+    // Fan-out remote requests, bounded by endpoint family concurrency limits
+    // Due items which aren't planned, for lack of API budget, remain due for
+    // the next cycles
+    List<TwitterAccount> twitterAccounts =
+        pollingPlanner.planAccounts(twitterAccountService.getDueTwitterAccounts()
+                                                         .stream()
+                                                         .filter(twitterAccount -> shards.contains(getShard(twitterAccount)))
+                                                         .toList());
+    List<CompletableFuture<TwitterMentions>> mentionsFutures = new ArrayList<>();
+    for (TwitterAccount twitterAccount : twitterAccounts) {
+      if (!isTwitterApiAvailable(bearerToken, TwitterEndpoint.MENTIONS)) {
+        break;
       }
-    } catch (ObjectNotFoundException e) {
-      LOG.warn("Error while updating twitter account {}", twitterAccount.getId(), e);
+      mentionsFutures.add(fetch(mentionsPermits, () -> twitterConsumerService.retrieveMentionsAsync(twitterAccount, bearerToken)));
+    }
+    List<Tweet> tweets = twitterAccountService.getDueTweets()
+                                              .stream()
+                                              .filter(tweet -> shards.contains(getShard(tweet)))
+                                              .toList();
+    Map<Long, TweetMetrics> tweetsMetrics = tweets.isEmpty() ? null : retrieveTweetsMetrics(tweets, bearerToken);
+    List<Tweet> changedTweets = new ArrayList<>();
+    List<Tweet> quietTweets = new ArrayList<>();
+    for (Tweet tweet : tweets) {
+      Long remoteTweetId = getRemoteTweetId(tweet);
+      TweetMetrics tweetMetrics = tweetsMetrics == null ? null : tweetsMetrics.get(remoteTweetId);
+      // Tweets which metrics weren't retrieved fall back to reactors lookup
+      boolean metricsRetrieved = tweetsMetrics != null && (tweetMetrics != null || !tweetsMetrics.containsKey(remoteTweetId));
+      if (metricsRetrieved && (tweetMetrics == null || !hasMetricsChanged(tweet, tweetMetrics))) {
+        // Tweet not found or without new reactions
+        quietTweets.add(tweet);
+      } else {
+        changedTweets.add(tweet);
+      }
+    }
+    List<TweetReactionsFetch> reactionsFetches = new ArrayList<>();
+    for (Tweet tweet : pollingPlanner.planTweets(changedTweets)) {
+      TweetMetrics tweetMetrics = tweetsMetrics == null ? null : tweetsMetrics.get(getRemoteTweetId(tweet));
+      if (!isTwitterApiAvailable(bearerToken, TwitterEndpoint.LIKING_USERS, TwitterEndpoint.RETWEETED_BY)) {
+        break;
+      }
+      String tweetLink = tweet.getTweetLink();
+      CompletableFuture<TweetReactors> likersFuture =
+          fetch(reactionsPermits, () -> twitterConsumerService.retrieveTweetLikersAsync(tweetLink, bearerToken, tweet.getLikerIds()));
+      CompletableFuture<TweetReactors> retweetersFuture =
+          fetch(reactionsPermits,
+                () -> twitterConsumerService.retrieveTweetRetweetersAsync(tweetLink, bearerToken, tweet.getRetweeterIds()));
+      reactionsFetches.add(new TweetReactionsFetch(tweet, tweetMetrics, likersFuture, retweetersFuture));
+    }
+    if (!reactionsFetches.isEmpty()) {
+      // Reactors stored by username are only needed for tweets which
+      // reactors are retrieved, loaded while retrieving them
+      try {
+        twitterAccountService.loadLegacyTweetReactors(reactionsFetches.stream().map(TweetReactionsFetch::tweet).toList());
+      } catch (RuntimeException e) {
+        LOG.warn("Error while loading tweets reactors stored by username, keep tweets due for next cycle", e);
+        reactionsFetches.clear();
+      }
+    }
+
+    // Merge results in the order of retrieved items, each item being saved in
+    // its own transaction before its triggers are handled
+    for (int i = 0; i < mentionsFutures.size(); i++) {
+      TwitterAccount twitterAccount = twitterAccounts.get(i);
+      if (!isShardLocked(getShard(twitterAccount))) {
+        continue;
+      }
+      TwitterMentions mentions = getResult(mentionsFutures.get(i), "mentions of account", twitterAccount.getId());
+      if (mentions == null) {
+        // Failed retrieval: keep the account due for the next cycle
+        continue;
+      }
+      try {
+        if (saveAccountUpdate(twitterAccount, mentions)) {
+          mentions.getTriggers().forEach(twitterTriggerService::handleTriggerAsync);
+        }
+      } catch (RuntimeException e) {
+        LOG.warn("Error while saving twitter account {} updates", twitterAccount.getId(), e);
+      }
+    }
+    for (TweetReactionsFetch reactionsFetch : reactionsFetches) {
+      Tweet tweet = reactionsFetch.tweet();
+      if (!isShardLocked(getShard(tweet))) {
+        continue;
+      }
+      TweetReactors tweetLikers = getResult(reactionsFetch.likers(), "likers of tweet", tweet.getTweetId());
+      TweetReactors tweetRetweeters = getResult(reactionsFetch.retweeters(), "retweeters of tweet", tweet.getTweetId());
+      if (tweetLikers == null || tweetRetweeters == null) {
+        // Failed retrieval: keep stored reactions and the tweet due for the
+        // next cycle
+        continue;
+      }
+      saveTweetUpdateAndHandleTriggers(tweet, reactionsFetch.tweetMetrics(), tweetLikers, tweetRetweeters);
+    }
+    quietTweets.stream()
+               .filter(tweet -> isShardLocked(getShard(tweet)))
+               .forEach(tweet -> saveTweetUpdateAndHandleTriggers(tweet, null, null, null));
+  }
+
+  private int getShard(TwitterAccount twitterAccount) {
+    return pollingShards.getShard(twitterAccount.getRemoteId());
+  }
+
+  private int getShard(Tweet tweet) {
+    Long remoteTweetId = getRemoteTweetId(tweet);
+    return pollingShards.getShard(remoteTweetId == null ? tweet.getTweetId() : remoteTweetId);
+  }
+
+  private boolean isShardLocked(int shard) {
+    if (pollingShards.isLocked(shard)) {
+      return true;
+    } else {
+      // Another node took over meanwhile and will retrieve the same updates
+      LOG.warn("Twitter polling shard {} lost while retrieving updates, skip saving them", shard);
+      return false;
     }
   }
 
-  private void processMentionTriggers(List<TwitterTrigger> mentionTriggers,
-                                      TwitterAccount twitterAccount) throws ObjectNotFoundException {
-    for (TwitterTrigger trigger : mentionTriggers) {
-      twitterTriggerService.handleTriggerAsync(trigger);
+  /**
+   * Saves the mentions cursors and the next poll of an account
+   *
+   * @param twitterAccount polled {@link TwitterAccount}
+   * @param mentions retrieved {@link TwitterMentions}
+   * @return true if saved, false if the account doesn't exist anymore
+   */
+  @ExoTransactional
+  public boolean saveAccountUpdate(TwitterAccount twitterAccount, TwitterMentions mentions) {
+    boolean active = CollectionUtils.isNotEmpty(mentions.getTriggers());
+    try {
+      if (isMentionCursorChanged(twitterAccount, mentions)) {
+        twitterAccountService.updateAccountMentionCursor(twitterAccount.getId(),
+                                                         mentions.getNewestId(),
+                                                         mentions.getGapSinceId(),
+                                                         mentions.getGapUntilId());
+      }
+      twitterAccountService.updateAccountPolling(twitterAccount.getId(), active);
+      return true;
+    } catch (ObjectNotFoundException e) {
+      LOG.debug("Twitter account {} was removed while being polled", twitterAccount.getId(), e);
+      return false;
     }
-    twitterAccountService.updateAccountLastMentionTweetId(twitterAccount.getId(), mentionTriggers.get(0).getTweetId());
   }
 
-  private void processTweetReactionsUpdate(Tweet tweet, String bearerToken) {
-    Set<String> tweetLikers = twitterConsumerService.retrieveTweetLikers(tweet.getTweetLink(), bearerToken);
-    Set<String> tweetRetweeters = twitterConsumerService.retrieveTweetRetweeters(tweet.getTweetLink(), bearerToken);
-    if (!CollectionUtils.isEqualCollection(tweetLikers, tweet.getLikers())) {
-      tweetLikers.stream().filter(liker -> !tweet.getLikers().contains(liker)).forEach(liker -> {
-        TwitterTrigger twitterTrigger = new TwitterTrigger();
-        twitterTrigger.setType("tweet");
-        twitterTrigger.setTrigger("likeTweet");
-        twitterTrigger.setTwitterUsername(liker);
-        String tweetId = Utils.extractTweetId(tweet.getTweetLink());
-        if (StringUtils.isNotBlank(tweetId)) {
-          twitterTrigger.setTweetId(Long.parseLong(tweetId));
+  /**
+   * Saves the reactions, the metrics and the next poll of a tweet
+   *
+   * @param tweet polled {@link Tweet}
+   * @param tweetMetrics changed {@link TweetMetrics}, null when not retrieved
+   * @param tweetLikers retrieved likers, null for a quiet tweet which
+   *          reactors weren't requested
+   * @param tweetRetweeters retrieved retweeters, null for a quiet tweet which
+   *          reactors weren't requested
+   * @return {@link List} of {@link TwitterTrigger} for new reactions
+   */
+  @ExoTransactional
+  public List<TwitterTrigger> saveTweetUpdate(Tweet tweet,
+                                              TweetMetrics tweetMetrics,
+                                              TweetReactors tweetLikers,
+                                              TweetReactors tweetRetweeters) {
+    List<TwitterTrigger> reactionTriggers = Collections.emptyList();
+    boolean active = false;
+    try {
+      if (tweetLikers != null && tweetRetweeters != null) {
+        TweetReactionsDiff reactionsDiff = TweetReactionsDiff.compute(tweet, tweetLikers, tweetRetweeters);
+        reactionTriggers = reactionsDiff.getTriggers();
+        boolean reactionsChanged = reactionsDiff.isChanged();
+        if (reactionsChanged) {
+          twitterAccountService.updateTweetReactors(tweet.getTweetId(), tweetLikers.getIds(), tweetRetweeters.getIds());
+          if (reactionsDiff.hasMigratedReactors()) {
+            twitterAccountService.removeLegacyTweetReactors(tweet.getTweetId(),
+                                                            reactionsDiff.getMigratedLikers(),
+                                                            reactionsDiff.getMigratedRetweeters());
+          }
         }
-        twitterTriggerService.handleTriggerAsync(twitterTrigger);
-      });
-    }
-    if (!CollectionUtils.isEqualCollection(tweetRetweeters, tweet.getRetweeters())) {
-      tweetRetweeters.stream().filter(retweeter -> !tweet.getRetweeters().contains(retweeter)).forEach(retweeter -> {
-        TwitterTrigger twitterTrigger = new TwitterTrigger();
-        twitterTrigger.setType("tweet");
-        twitterTrigger.setTrigger("retweet");
-        twitterTrigger.setTwitterUsername(retweeter);
-        String tweetId = Utils.extractTweetId(tweet.getTweetLink());
-        if (StringUtils.isNotBlank(tweetId)) {
-          twitterTrigger.setTweetId(Long.parseLong(tweetId));
+        if (tweetMetrics != null) {
+          twitterAccountService.updateTweetMetrics(tweet.getTweetId(),
+                                                   tweetMetrics.getLikeCount(),
+                                                   tweetMetrics.getRetweetCount());
         }
-        twitterTriggerService.handleTriggerAsync(twitterTrigger);
-      });
+        // Metrics are only provided when they changed since last poll
+        active = reactionsChanged || tweetMetrics != null;
+      }
+      twitterAccountService.updateTweetPolling(tweet.getTweetId(), active);
+    } catch (ObjectNotFoundException e) {
+      LOG.debug("Tweet {} was removed while being polled", tweet.getTweetId(), e);
+      return Collections.emptyList();
     }
-    if (!CollectionUtils.isEqualCollection(tweetLikers, tweet.getLikers())
-        || !CollectionUtils.isEqualCollection(tweetRetweeters, tweet.getRetweeters())) {
-      try {
-        twitterAccountService.updateTweetReactions(tweet.getTweetId(), tweetLikers, tweetRetweeters);
-      } catch (ObjectNotFoundException e) {
-        LOG.warn("Error while updating tweet reactions {}", tweet.getTweetId(), e);
+    return reactionTriggers;
+  }
+
+  private void saveTweetUpdateAndHandleTriggers(Tweet tweet,
+                                                TweetMetrics tweetMetrics,
+                                                TweetReactors tweetLikers,
+                                                TweetReactors tweetRetweeters) {
+    try {
+      saveTweetUpdate(tweet, tweetMetrics, tweetLikers, tweetRetweeters).forEach(twitterTriggerService::handleTriggerAsync);
+    } catch (RuntimeException e) {
+      LOG.warn("Error while saving tweet {} updates", tweet.getTweetId(), e);
+    }
+  }
+
+  private boolean isMentionCursorChanged(TwitterAccount twitterAccount, TwitterMentions mentions) {
+    return twitterAccount.getLastMentionTweetId() != mentions.getNewestId()
+        || !Objects.equals(twitterAccount.getMentionGapSinceId(), mentions.getGapSinceId())
+        || !Objects.equals(twitterAccount.getMentionGapUntilId(), mentions.getGapUntilId());
+  }
+
+  private <T> CompletableFuture<T> fetch(Semaphore permits, Supplier<CompletableFuture<T>> request) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CompletableFuture.completedFuture(null);
+    }
+    try {
+      return request.get().whenComplete((result, error) -> permits.release());
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private <T> T getResult(CompletableFuture<T> future, String description, long id) {
+    try {
+      return future.join();
+    } catch (CompletionException | CancellationException e) {
+      LOG.warn("Error while retrieving {} {}", description, id, e);
+      return null;
+    }
+  }
+
+  private int getConcurrency(int concurrency) {
+    return parallel ? Math.max(concurrency, 1) : 1;
+  }
+
+  private Map<Long, TweetMetrics> retrieveTweetsMetrics(List<Tweet> tweets, String bearerToken) {
+    if (!isTwitterApiAvailable(bearerToken, TwitterEndpoint.TWEETS_LOOKUP)) {
+      return null;
+    }
+    List<Long> tweetIds = tweets.stream().map(this::getRemoteTweetId).filter(Objects::nonNull).toList();
+    // When null, metrics couldn't be retrieved: fall back to reactors lookup
+    return twitterConsumerService.retrieveTweetsMetrics(tweetIds, bearerToken);
+  }
+
+  private boolean hasMetricsChanged(Tweet tweet, TweetMetrics tweetMetrics) {
+    return tweet.getLikeCount() == null || tweet.getRetweetCount() == null
+        || tweet.getLikeCount() != tweetMetrics.getLikeCount() || tweet.getRetweetCount() != tweetMetrics.getRetweetCount();
+  }
+
+  private Long getRemoteTweetId(Tweet tweet) {
+    String tweetId = Utils.extractTweetId(tweet.getTweetLink());
+    return StringUtils.isNumeric(tweetId) ? Long.valueOf(tweetId) : null;
+  }
+
+  private boolean isTwitterApiAvailable(String bearerToken, TwitterEndpoint... endpoints) {
+    for (TwitterEndpoint endpoint : endpoints) {
+      if (!twitterConsumerService.isTwitterApiAvailable(endpoint, bearerToken)) {
+        LOG.info("Twitter endpoint {} is unavailable, skip remaining updates of this cycle", endpoint);
+        return false;
       }
     }
+    return true;
+  }
+
+  private record TweetReactionsFetch(Tweet tweet,
+                                     TweetMetrics tweetMetrics,
+                                     CompletableFuture<TweetReactors> likers,
+                                     CompletableFuture<TweetReactors> retweeters) {
   }
 }
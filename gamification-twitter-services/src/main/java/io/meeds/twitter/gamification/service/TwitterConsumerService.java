@@ -17,14 +17,23 @@
  */
 package io.meeds.twitter.gamification.service;
 
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.ConnectionPoolStatus;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
 import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
 import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TransferStatistics;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
-import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface TwitterConsumerService {
 
@@ -48,23 +57,71 @@ public interface TwitterConsumerService {
    */
   RemoteTwitterAccount retrieveTwitterAccount(long twitterRemoteId, String bearerToken);
 
+  /**
+   * Retrieve available Twitter accounts info using batch lookups.
+   *
+   * @param twitterRemoteIds Twitter accounts remote Ids
+   * @param bearerToken Twitter bearer token
+   * @return {@link Map} of found {@link RemoteTwitterAccount} by remote Id
+   */
+  Map<Long, RemoteTwitterAccount> retrieveTwitterAccounts(Collection<Long> twitterRemoteIds, String bearerToken);
+
   /**
    * Retrieve the list of tweet likers.
    *
    * @param tweetLink Tweet link
    * @param bearerToken Twitter bearer token
-   * @return the {@link List} of tweet likers
+   * @return the {@link TweetReactors} of tweet likers
+   */
+  TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken);
+
+  /**
+   * Retrieve the list of tweet likers, following result pages until reaching
+   * an already known liker.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @param knownLikerIds already known tweet liker Ids, sorted in ascending
+   *          order
+   * @return the {@link TweetReactors} of tweet likers, including the known
+   *         ones which weren't reached, or null when they couldn't be
+   *         retrieved
    */
-  Set<String> retrieveTweetLikers(String tweetLink, String bearerToken);
+  TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken, long[] knownLikerIds);
 
   /**
    * Retrieve the list of tweet retweeters.
    *
    * @param tweetLink Tweet link
    * @param bearerToken Twitter bearer token
-   * @return the {@link List} of tweet retweeters
+   * @return the {@link TweetReactors} of tweet retweeters
    */
-  Set<String> retrieveTweetRetweeters(String tweetLink, String bearerToken);
+  TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken);
+
+  /**
+   * Retrieve the list of tweet retweeters, following result pages until
+   * reaching an already known retweeter.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @param knownRetweeterIds already known tweet retweeter Ids, sorted in
+   *          ascending order
+   * @return the {@link TweetReactors} of tweet retweeters, including the
+   *         known ones which weren't reached, or null when they couldn't be
+   *         retrieved
+   */
+  TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken, long[] knownRetweeterIds);
+
+  /**
+   * Retrieve the public metrics of tweets using batch lookups.
+   *
+   * @param tweetIds Tweets remote Ids
+   * @param bearerToken Twitter bearer token
+   * @return {@link Map} of {@link TweetMetrics} by tweet remote Id, not
+   *         including the tweets which weren't found, with null metrics for
+   *         the tweets which metrics couldn't be retrieved
+   */
+  Map<Long, TweetMetrics> retrieveTweetsMetrics(Collection<Long> tweetIds, String bearerToken);
 
   /**
    * Check Twitter token status
@@ -75,12 +132,141 @@ public interface TwitterConsumerService {
   TokenStatus checkTwitterTokenStatus(String bearerToken);
 
   /**
-   * Retrieve available tweets in which the account identified by its identifier
-   * was mentioned
+   * Retrieve the tweets in which the account was mentioned since its last
+   * mentions retrieval
+   *
+   * @param twitterAccount {@link TwitterAccount} Twitter account
+   * @param bearerToken Twitter bearer token
+   * @return {@link TwitterMentions} with the cursors to use for the next
+   *         retrieval, null when no mention could be retrieved
+   */
+  TwitterMentions retrieveMentions(TwitterAccount twitterAccount, String bearerToken);
+
+  /**
+   * Retrieve available Twitter account info asynchronously.
+   *
+   * @param twitterUsername Twitter account username
+   * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of {@link RemoteTwitterAccount},
+   *         completed exceptionally with {@link ObjectNotFoundException} when
+   *         the Twitter account is not found
+   */
+  CompletableFuture<RemoteTwitterAccount> retrieveTwitterAccountAsync(String twitterUsername, String bearerToken);
+
+  /**
+   * Retrieve available Twitter account info asynchronously.
+   *
+   * @param twitterRemoteId Twitter account remote Id
+   * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of {@link RemoteTwitterAccount}
+   */
+  CompletableFuture<RemoteTwitterAccount> retrieveTwitterAccountAsync(long twitterRemoteId, String bearerToken);
+
+  /**
+   * Retrieve the list of tweet likers asynchronously.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of tweet likers
+   */
+  CompletableFuture<TweetReactors> retrieveTweetLikersAsync(String tweetLink, String bearerToken);
+
+  /**
+   * Retrieve asynchronously the list of tweet likers, following result pages
+   * until reaching an already known liker.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @param knownLikerIds already known tweet liker Ids, sorted in ascending
+   *          order
+   * @return a {@link CompletableFuture} of tweet likers, completed with null
+   *         when they couldn't be retrieved
+   */
+  CompletableFuture<TweetReactors> retrieveTweetLikersAsync(String tweetLink, String bearerToken, long[] knownLikerIds);
+
+  /**
+   * Retrieve the list of tweet retweeters asynchronously.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of tweet retweeters
+   */
+  CompletableFuture<TweetReactors> retrieveTweetRetweetersAsync(String tweetLink, String bearerToken);
+
+  /**
+   * Retrieve asynchronously the list of tweet retweeters, following result
+   * pages until reaching an already known retweeter.
+   *
+   * @param tweetLink Tweet link
+   * @param bearerToken Twitter bearer token
+   * @param knownRetweeterIds already known tweet retweeter Ids, sorted in
+   *          ascending order
+   * @return a {@link CompletableFuture} of tweet retweeters, completed with
+   *         null when they couldn't be retrieved
+   */
+  CompletableFuture<TweetReactors> retrieveTweetRetweetersAsync(String tweetLink,
+                                                                String bearerToken,
+                                                                long[] knownRetweeterIds);
+
+  /**
+   * Check Twitter token status asynchronously.
+   *
+   * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of {@link TokenStatus}
+   */
+  CompletableFuture<TokenStatus> checkTwitterTokenStatusAsync(String bearerToken);
+
+  /**
+   * Retrieve asynchronously the tweets in which the account was mentioned
+   * since its last mentions retrieval
    *
    * @param twitterAccount {@link TwitterAccount} Twitter account
-   * @param lastMentionTweetId last mention tweet Id
    * @param bearerToken Twitter bearer token
+   * @return a {@link CompletableFuture} of {@link TwitterMentions}, completed
+   *         with null when no mention could be retrieved
+   */
+  CompletableFuture<TwitterMentions> retrieveMentionsAsync(TwitterAccount twitterAccount, String bearerToken);
+
+  /**
+   * Retrieve the rate limit state of each consumed Twitter API endpoint
+   *
+   * @return {@link List} of {@link RateLimitStatus}
+   */
+  List<RateLimitStatus> getRateLimitStatuses();
+
+  /**
+   * Retrieve the transferred and decoded bytes of each consumed Twitter API
+   * endpoint responses
+   *
+   * @return {@link List} of {@link TransferStatistics}
+   */
+  List<TransferStatistics> getTransferStatistics();
+
+  /**
+   * Checks whether calls to a Twitter API endpoint can be issued, or are
+   * short-circuited because the endpoint keeps failing or the token was
+   * rejected
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   * @param bearerToken Twitter bearer token
+   * @return true if the endpoint can be called using the token
+   */
+  boolean isTwitterApiAvailable(TwitterEndpoint endpoint, String bearerToken);
+
+  /**
+   * Retrieves the Twitter API consumption of the current month with the
+   * designated bearer token, as recorded in the usage ledger.
+   *
+   * @param bearerToken bearer token
+   * @return {@link ApiUsageStatus}
+   */
+  ApiUsageStatus getApiUsageStatus(String bearerToken);
+
+  /**
+   * Retrieves the usage statistics of the connections pool used to call
+   * Twitter API
+   *
+   * @return {@link ConnectionPoolStatus}
    */
-  List<TwitterTrigger> getMentionEvents(TwitterAccount twitterAccount, long lastMentionTweetId, String bearerToken);
+  ConnectionPoolStatus getConnectionPoolStatus();
 }
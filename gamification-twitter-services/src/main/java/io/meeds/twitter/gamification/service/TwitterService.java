@@ -79,6 +79,13 @@ public interface TwitterService {
    */
   List<TwitterAccount> getTwitterAccounts();
 
+  /**
+   * Get watched twitter accounts which are due to be polled.
+   *
+   * @return {@link List} of {@link TwitterAccount}
+   */
+  List<TwitterAccount> getDueTwitterAccounts();
+
   /**
    * Count all watched twitter accounts
    *
@@ -125,7 +132,7 @@ public interface TwitterService {
   Tweet addTweetToWatch(String tweetLink);
 
   /**
-   * Get available watched tweets using page.
+   * Get available watched tweets using page, without their reactors.
    *
    * @param pageable {@link Pageable} the page to be returned.
    * @return {@link List} of {@link Tweet}
@@ -133,12 +140,19 @@ public interface TwitterService {
   Page<Tweet> getTweets(Pageable pageable);
 
   /**
-   * Get all watched tweets.
+   * Get all watched tweets, without their reactors.
    *
    * @return {@link List} of {@link Tweet}
    */
   List<Tweet> getTweets();
 
+  /**
+   * Get watched tweets which are due to be polled.
+   *
+   * @return {@link List} of {@link Tweet}
+   */
+  List<Tweet> getDueTweets();
+
   /**
    * Count all watched tweets
    *
@@ -210,13 +224,80 @@ public interface TwitterService {
   void updateAccountLastMentionTweetId(long accountId, long lastMentionTweetId) throws ObjectNotFoundException;
 
   /**
-   * Update tweet with last reactions.
+   * Update twitter account mentions retrieval cursors.
+   *
+   * @param accountId account Id
+   * @param lastMentionTweetId newest seen mention Tweet Id
+   * @param gapSinceId lower bound of mentions left to retrieve, null if none
+   * @param gapUntilId upper bound of mentions left to retrieve, null if none
+   * @throws ObjectNotFoundException when the Twitter account identified by its
+   *           technical id is not found
+   */
+  void updateAccountMentionCursor(long accountId,
+                                  long lastMentionTweetId,
+                                  Long gapSinceId,
+                                  Long gapUntilId) throws ObjectNotFoundException;
+
+  /**
+   * Update tweet with last reactors.
    *
    * @param tweetId tweetId
-   * @param likers tweet likers
-   * @param retweeters tweet retweeters
+   * @param likerIds tweet liker Ids, sorted in ascending order
+   * @param retweeterIds tweet retweeter Ids, sorted in ascending order
    * @throws ObjectNotFoundException when the tweet identified by its technical id
    *           is not found
    */
-  void updateTweetReactions(long tweetId, Set<String> likers, Set<String> retweeters) throws ObjectNotFoundException;
+  void updateTweetReactors(long tweetId, long[] likerIds, long[] retweeterIds) throws ObjectNotFoundException;
+
+  /**
+   * Removes the tweet reactors usernames stored before reactors were
+   * identified by their Ids, once their Ids are stored.
+   *
+   * @param tweetId tweetId
+   * @param likers likers usernames
+   * @param retweeters retweeters usernames
+   */
+  void removeLegacyTweetReactors(long tweetId, Set<String> likers, Set<String> retweeters);
+
+  /**
+   * Loads the tweets reactors usernames stored before reactors were identified
+   * by their Ids. Due tweets are retrieved without them, since they're only
+   * needed for the tweets which reactors are retrieved.
+   *
+   * @param tweets {@link List} of {@link Tweet} to load reactors usernames for
+   */
+  void loadLegacyTweetReactors(List<Tweet> tweets);
+
+  /**
+   * Update the last seen tweet public metrics
+   *
+   * @param tweetId tweetId
+   * @param likeCount tweet like count
+   * @param retweetCount tweet retweet count
+   * @throws ObjectNotFoundException when the tweet identified by its technical id
+   *           is not found
+   */
+  void updateTweetMetrics(long tweetId, long likeCount, long retweetCount) throws ObjectNotFoundException;
+
+  /**
+   * Schedule the next poll of a twitter account, sooner when it produced new
+   * mentions, later when it didn't.
+   *
+   * @param accountId account Id
+   * @param active whether new mentions were retrieved on last poll
+   * @throws ObjectNotFoundException when the Twitter account identified by its
+   *           technical id is not found
+   */
+  void updateAccountPolling(long accountId, boolean active) throws ObjectNotFoundException;
+
+  /**
+   * Schedule the next poll of a tweet, sooner when it got new reactions, later
+   * when it didn't.
+   *
+   * @param tweetId tweet Id
+   * @param active whether new reactions were retrieved on last poll
+   * @throws ObjectNotFoundException when the tweet identified by its technical
+   *           id is not found
+   */
+  void updateTweetPolling(long tweetId, boolean active) throws ObjectNotFoundException;
 }
@@ -17,18 +17,32 @@
  */
 package io.meeds.twitter.gamification.service.impl;
 
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.ConnectionPoolStatus;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
 import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
 import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TransferStatistics;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
-import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import io.meeds.twitter.gamification.storage.TwitterConsumerStorage;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+import static io.meeds.twitter.gamification.config.TwitterConsumerConfig.TWITTER_CONSUMER_EXECUTOR;
 
 @Service
 public class TwitterConsumerServiceImpl implements TwitterConsumerService {
@@ -36,6 +50,10 @@ public class TwitterConsumerServiceImpl implements TwitterConsumerService {
   @Autowired
   private TwitterConsumerStorage twitterConsumerStorage;
 
+  @Autowired
+  @Qualifier(TWITTER_CONSUMER_EXECUTOR)
+  private ExecutorService        twitterConsumerExecutor;
+
   @Override
   public RemoteTwitterAccount retrieveTwitterAccount(String twitterUsername, String bearerToken) throws ObjectNotFoundException {
     return twitterConsumerStorage.retrieveTwitterAccount(twitterUsername, bearerToken);
@@ -46,21 +64,125 @@ public class TwitterConsumerServiceImpl implements TwitterConsumerService {
     return twitterConsumerStorage.retrieveTwitterAccount(twitterRemoteId, bearerToken);
   }
 
-  public Set<String> retrieveTweetLikers(String tweetLink, String bearerToken) {
+  @Override
+  public Map<Long, RemoteTwitterAccount> retrieveTwitterAccounts(Collection<Long> twitterRemoteIds, String bearerToken) {
+    return twitterConsumerStorage.retrieveTwitterAccounts(twitterRemoteIds, bearerToken);
+  }
+
+  @Override
+  public TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken) {
     return twitterConsumerStorage.retrieveTweetLikers(tweetLink, bearerToken);
   }
 
-  public Set<String> retrieveTweetRetweeters(String tweetLink, String bearerToken) {
+  @Override
+  public TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken) {
     return twitterConsumerStorage.retrieveTweetRetweeters(tweetLink, bearerToken);
   }
 
+  @Override
+  public TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken, long[] knownLikerIds) {
+    return twitterConsumerStorage.retrieveTweetLikers(tweetLink, bearerToken, knownLikerIds);
+  }
+
+  @Override
+  public TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken, long[] knownRetweeterIds) {
+    return twitterConsumerStorage.retrieveTweetRetweeters(tweetLink, bearerToken, knownRetweeterIds);
+  }
+
+  @Override
+  public Map<Long, TweetMetrics> retrieveTweetsMetrics(Collection<Long> tweetIds, String bearerToken) {
+    return twitterConsumerStorage.retrieveTweetsMetrics(tweetIds, bearerToken);
+  }
+
   @Override
   public TokenStatus checkTwitterTokenStatus(String bearerToken) {
     return twitterConsumerStorage.checkTwitterTokenStatus(bearerToken);
   }
 
   @Override
-  public List<TwitterTrigger> getMentionEvents(TwitterAccount twitterAccount, long lastMentionTweetId, String bearerToken) {
-    return twitterConsumerStorage.getMentionEvents(twitterAccount, lastMentionTweetId, bearerToken);
+  public TwitterMentions retrieveMentions(TwitterAccount twitterAccount, String bearerToken) {
+    return twitterConsumerStorage.retrieveMentions(twitterAccount, bearerToken);
+  }
+
+  @Override
+  public CompletableFuture<RemoteTwitterAccount> retrieveTwitterAccountAsync(String twitterUsername, String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return twitterConsumerStorage.retrieveTwitterAccount(twitterUsername, bearerToken);
+      } catch (ObjectNotFoundException e) {
+        throw new CompletionException(e);
+      }
+    }, twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<RemoteTwitterAccount> retrieveTwitterAccountAsync(long twitterRemoteId, String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveTwitterAccount(twitterRemoteId, bearerToken),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TweetReactors> retrieveTweetLikersAsync(String tweetLink, String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveTweetLikers(tweetLink, bearerToken),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TweetReactors> retrieveTweetLikersAsync(String tweetLink, String bearerToken, long[] knownLikerIds) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveTweetLikers(tweetLink, bearerToken, knownLikerIds),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TweetReactors> retrieveTweetRetweetersAsync(String tweetLink, String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveTweetRetweeters(tweetLink, bearerToken),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TweetReactors> retrieveTweetRetweetersAsync(String tweetLink,
+                                                                       String bearerToken,
+                                                                       long[] knownRetweeterIds) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveTweetRetweeters(tweetLink,
+                                                                                              bearerToken,
+                                                                                              knownRetweeterIds),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TokenStatus> checkTwitterTokenStatusAsync(String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.checkTwitterTokenStatus(bearerToken),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public CompletableFuture<TwitterMentions> retrieveMentionsAsync(TwitterAccount twitterAccount, String bearerToken) {
+    return CompletableFuture.supplyAsync(() -> twitterConsumerStorage.retrieveMentions(twitterAccount, bearerToken),
+                                         twitterConsumerExecutor);
+  }
+
+  @Override
+  public List<RateLimitStatus> getRateLimitStatuses() {
+    return twitterConsumerStorage.getRateLimitStatuses();
+  }
+
+  @Override
+  public List<TransferStatistics> getTransferStatistics() {
+    return twitterConsumerStorage.getTransferStatistics();
+  }
+
+  @Override
+  public boolean isTwitterApiAvailable(TwitterEndpoint endpoint, String bearerToken) {
+    return twitterConsumerStorage.isTwitterApiAvailable(endpoint, bearerToken);
+  }
+
+  @Override
+  public ApiUsageStatus getApiUsageStatus(String bearerToken) {
+    return twitterConsumerStorage.getApiUsageStatus(bearerToken);
+  }
+
+  @Override
+  public ConnectionPoolStatus getConnectionPoolStatus() {
+    return twitterConsumerStorage.getConnectionPoolStatus();
   }
 }
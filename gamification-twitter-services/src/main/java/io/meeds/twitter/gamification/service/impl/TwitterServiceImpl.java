@@ -23,14 +23,14 @@ import io.meeds.gamification.model.filter.RuleFilter;
 import io.meeds.gamification.service.RuleService;
 import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
 import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
-import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import io.meeds.twitter.gamification.service.TwitterService;
 import io.meeds.twitter.gamification.storage.TwitterAccountStorage;
 import io.meeds.twitter.gamification.storage.TwitterTweetStorage;
 import io.meeds.gamification.utils.Utils;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.exoplatform.commons.ObjectAlreadyExistsException;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
@@ -42,6 +42,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
 
@@ -108,6 +109,11 @@ public class TwitterServiceImpl implements TwitterService {
     return twitterAccountStorage.getTwitterAccounts();
   }
 
+  @Override
+  public List<TwitterAccount> getDueTwitterAccounts() {
+    return twitterAccountStorage.getDueTwitterAccounts(new Date());
+  }
+
   @Override
   public long countTwitterAccounts(String currentUser) throws IllegalAccessException {
     if (!Utils.isRewardingManager(currentUser)) {
@@ -139,9 +145,10 @@ public class TwitterServiceImpl implements TwitterService {
       twitterAccount.setName(remoteTwitterAccount.getName());
       twitterAccount.setIdentifier(remoteTwitterAccount.getUsername());
       twitterAccount.setWatchedBy(currentUser);
-      List<TwitterTrigger> mentionTriggers = twitterConsumerService.getMentionEvents(twitterAccount, 0L, getTwitterBearerToken());
-      if (CollectionUtils.isNotEmpty(mentionTriggers)) {
-        twitterAccount.setLastMentionTweetId(mentionTriggers.get(0).getTweetId());
+      // Only mentions posted after the account is watched are considered
+      TwitterMentions mentions = twitterConsumerService.retrieveMentions(twitterAccount, getTwitterBearerToken());
+      if (mentions != null) {
+        twitterAccount.setLastMentionTweetId(mentions.getNewestId());
       }
       return twitterAccountStorage.addTwitterAccount(twitterAccount);
     }
@@ -185,13 +192,13 @@ public class TwitterServiceImpl implements TwitterService {
     }
     Tweet tweet = new Tweet();
     tweet.setTweetLink(tweetLink);
-    Set<String> tweetLikers = twitterConsumerService.retrieveTweetLikers(tweetLink, getTwitterBearerToken());
-    if (CollectionUtils.isNotEmpty(tweetLikers)) {
-      tweet.setLikers(tweetLikers);
+    TweetReactors tweetLikers = twitterConsumerService.retrieveTweetLikers(tweetLink, getTwitterBearerToken());
+    if (tweetLikers != null) {
+      tweet.setLikerIds(tweetLikers.getIds());
     }
-    Set<String> tweetRetweeters = twitterConsumerService.retrieveTweetRetweeters(tweetLink, getTwitterBearerToken());
-    if (CollectionUtils.isNotEmpty(tweetLikers)) {
-      tweet.setRetweeters(tweetRetweeters);
+    TweetReactors tweetRetweeters = twitterConsumerService.retrieveTweetRetweeters(tweetLink, getTwitterBearerToken());
+    if (tweetRetweeters != null) {
+      tweet.setRetweeterIds(tweetRetweeters.getIds());
     }
     return twitterTweetStorage.addTweetToWatch(tweet);
   }
@@ -206,6 +213,11 @@ public class TwitterServiceImpl implements TwitterService {
     return twitterTweetStorage.getTweets();
   }
 
+  @Override
+  public List<Tweet> getDueTweets() {
+    return twitterTweetStorage.getDueTweets(new Date());
+  }
+
   @Override
   public long countTweets() {
     return twitterTweetStorage.countTweets();
@@ -279,14 +291,74 @@ public class TwitterServiceImpl implements TwitterService {
   }
 
   @Override
-  public void updateTweetReactions(long tweetId, Set<String> likers, Set<String> retweeters) throws ObjectNotFoundException {
+  public void updateAccountMentionCursor(long accountId,
+                                         long lastMentionTweetId,
+                                         Long gapSinceId,
+                                         Long gapUntilId) throws ObjectNotFoundException {
+    if (accountId <= 0) {
+      throw new IllegalArgumentException("Account id must be positive");
+    }
+    TwitterAccount account = twitterAccountStorage.updateAccountMentionCursor(accountId, lastMentionTweetId, gapSinceId, gapUntilId);
+    if (account == null) {
+      throw new ObjectNotFoundException("Twitter account with id : " + accountId + NOT_FOUND);
+    }
+  }
+
+  @Override
+  public void updateTweetReactors(long tweetId, long[] likerIds, long[] retweeterIds) throws ObjectNotFoundException {
     if (tweetId <= 0) {
       throw new IllegalArgumentException("Tweet id must be positive");
     }
-    Tweet tweet = twitterTweetStorage.getTweetById(tweetId);
+    if (!twitterTweetStorage.updateTweetReactors(tweetId, likerIds, retweeterIds)) {
+      throw new ObjectNotFoundException("Tweet with id : " + tweetId + NOT_FOUND);
+    }
+  }
+
+  @Override
+  public void removeLegacyTweetReactors(long tweetId, Set<String> likers, Set<String> retweeters) {
+    if (tweetId <= 0) {
+      throw new IllegalArgumentException("Tweet id must be positive");
+    }
+    twitterTweetStorage.removeLegacyTweetReactors(tweetId, likers, retweeters);
+  }
+
+  @Override
+  public void loadLegacyTweetReactors(List<Tweet> tweets) {
+    if (tweets != null && !tweets.isEmpty()) {
+      twitterTweetStorage.loadLegacyTweetReactors(tweets);
+    }
+  }
+
+  @Override
+  public void updateTweetMetrics(long tweetId, long likeCount, long retweetCount) throws ObjectNotFoundException {
+    if (tweetId <= 0) {
+      throw new IllegalArgumentException("Tweet id must be positive");
+    }
+    Tweet tweet = twitterTweetStorage.updateTweetMetrics(tweetId, likeCount, retweetCount);
+    if (tweet == null) {
+      throw new ObjectNotFoundException("Tweet with id : " + tweetId + NOT_FOUND);
+    }
+  }
+
+  @Override
+  public void updateAccountPolling(long accountId, boolean active) throws ObjectNotFoundException {
+    if (accountId <= 0) {
+      throw new IllegalArgumentException("Account id must be positive");
+    }
+    TwitterAccount account = twitterAccountStorage.updateAccountPolling(accountId, active);
+    if (account == null) {
+      throw new ObjectNotFoundException("Twitter account with id : " + accountId + NOT_FOUND);
+    }
+  }
+
+  @Override
+  public void updateTweetPolling(long tweetId, boolean active) throws ObjectNotFoundException {
+    if (tweetId <= 0) {
+      throw new IllegalArgumentException("Tweet id must be positive");
+    }
+    Tweet tweet = twitterTweetStorage.updateTweetPolling(tweetId, active);
     if (tweet == null) {
       throw new ObjectNotFoundException("Tweet with id : " + tweetId + NOT_FOUND);
     }
-    twitterTweetStorage.updateTweetReactions(tweetId, likers, retweeters);
   }
 }
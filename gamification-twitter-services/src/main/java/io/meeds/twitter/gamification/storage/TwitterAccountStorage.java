@@ -43,18 +43,21 @@ import static io.meeds.twitter.gamification.storage.mapper.TwitterAccountMapper.
 @Repository
 public class TwitterAccountStorage {
 
-  private static final Scope  TWITTER_CONNECTOR_SCOPE = Scope.APPLICATION.id("twitterConnector");
+  private static final Scope   TWITTER_CONNECTOR_SCOPE = Scope.APPLICATION.id("twitterConnector");
 
-  private static final String BEARER_TOKEN_KEY        = "BEARER_TOKEN";
+  private static final String  BEARER_TOKEN_KEY        = "BEARER_TOKEN";
 
   @Autowired
-  private TwitterAccountDAO   twitterAccountDAO;
+  private TwitterAccountDAO    twitterAccountDAO;
 
   @Autowired
-  private SettingService      settingService;
+  private SettingService       settingService;
 
   @Autowired
-  private CodecInitializer    codecInitializer;
+  private CodecInitializer     codecInitializer;
+
+  @Autowired
+  private TwitterPollingPolicy pollingPolicy;
 
   public TwitterAccount addTwitterAccount(TwitterAccount twitterAccount) throws ObjectAlreadyExistsException {
     TwitterAccount existsAccount = getTwitterAccountByRemoteId(twitterAccount.getRemoteId());
@@ -84,6 +87,11 @@ public class TwitterAccountStorage {
     return twitterAccountEntities.stream().map(TwitterAccountMapper::fromEntity).toList();
   }
 
+  public List<TwitterAccount> getDueTwitterAccounts(Date date) {
+    List<TwitterAccountEntity> twitterAccountEntities = twitterAccountDAO.findDueAccounts(date);
+    return twitterAccountEntities.stream().map(TwitterAccountMapper::fromEntity).toList();
+  }
+
   public long countTwitterAccounts() {
     return twitterAccountDAO.count();
   }
@@ -102,6 +110,28 @@ public class TwitterAccountStorage {
     return fromEntity(twitterAccountDAO.save(twitterAccountEntity));
   }
 
+  public TwitterAccount updateAccountMentionCursor(long accountId, long lastMentionTweetId, Long gapSinceId, Long gapUntilId) {
+    TwitterAccountEntity twitterAccountEntity = twitterAccountDAO.findById(accountId).orElse(null);
+    if (twitterAccountEntity == null) {
+      return null;
+    }
+    twitterAccountEntity.setLastMentionTweetId(lastMentionTweetId);
+    twitterAccountEntity.setMentionGapSinceId(gapSinceId);
+    twitterAccountEntity.setMentionGapUntilId(gapUntilId);
+    return fromEntity(twitterAccountDAO.save(twitterAccountEntity));
+  }
+
+  public TwitterAccount updateAccountPolling(long accountId, boolean active) {
+    TwitterAccountEntity twitterAccountEntity = twitterAccountDAO.findById(accountId).orElse(null);
+    if (twitterAccountEntity == null) {
+      return null;
+    }
+    long pollInterval = pollingPolicy.getNextInterval(twitterAccountEntity.getPollInterval(), active);
+    twitterAccountEntity.setPollInterval(pollInterval);
+    twitterAccountEntity.setNextPollDate(pollingPolicy.getNextPollDate(pollInterval));
+    return fromEntity(twitterAccountDAO.save(twitterAccountEntity));
+  }
+
   public TwitterAccount deleteTwitterAccount(long accountId) {
     TwitterAccountEntity twitterAccountEntity = twitterAccountDAO.findById(accountId).orElse(null);
     if (twitterAccountEntity != null) {
@@ -0,0 +1,73 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import org.exoplatform.commons.api.persistence.ExoTransactional;
+
+import io.meeds.twitter.gamification.dao.TwitterApiUsageDAO;
+import io.meeds.twitter.gamification.entity.TwitterApiUsageEntity;
+import io.meeds.twitter.gamification.model.ApiUsage;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+@Repository
+public class TwitterApiUsageStorage {
+
+  @Autowired
+  private TwitterApiUsageDAO twitterApiUsageDAO;
+
+  /**
+   * Adds the designated counts to the usage of a day, endpoint and token. The
+   * counts are incremented in database to not override the usage recorded by
+   * other cluster nodes.
+   *
+   * @param day usage day, in UTC
+   * @param endpoint {@link TwitterEndpoint}
+   * @param tokenHash hash of the used bearer token
+   * @param requestCount number of requests to add
+   * @param readCount number of read items to add
+   */
+  @ExoTransactional
+  public void addUsage(LocalDate day, TwitterEndpoint endpoint, String tokenHash, long requestCount, long readCount) {
+    int updated = twitterApiUsageDAO.incrementUsage(day, endpoint, tokenHash, requestCount, readCount);
+    if (updated == 0) {
+      TwitterApiUsageEntity twitterApiUsageEntity = new TwitterApiUsageEntity();
+      twitterApiUsageEntity.setDay(day);
+      twitterApiUsageEntity.setEndpoint(endpoint);
+      twitterApiUsageEntity.setTokenHash(tokenHash);
+      twitterApiUsageEntity.setRequestCount(requestCount);
+      twitterApiUsageEntity.setReadCount(readCount);
+      twitterApiUsageDAO.save(twitterApiUsageEntity);
+    }
+  }
+
+  public List<ApiUsage> getUsages(String tokenHash, LocalDate fromDay) {
+    return twitterApiUsageDAO.findByTokenHashAndDayGreaterThanEqualOrderByDayAsc(tokenHash, fromDay)
+                             .stream()
+                             .map(entity -> new ApiUsage(entity.getDay().toString(),
+                                                         entity.getEndpoint(),
+                                                         entity.getRequestCount(),
+                                                         entity.getReadCount()))
+                             .toList();
+  }
+}
@@ -21,38 +21,72 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.meeds.twitter.gamification.config.TwitterHttpClientConfig;
+import io.meeds.twitter.gamification.exception.TwitterCircuitOpenException;
 import io.meeds.twitter.gamification.exception.TwitterConnectionException;
+import io.meeds.twitter.gamification.exception.TwitterRateLimitException;
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.ConnectionPoolStatus;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
 import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
 import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TransferStatistics;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+import io.meeds.twitter.gamification.storage.client.TwitterCircuitBreaker;
+import io.meeds.twitter.gamification.storage.client.TwitterPageIterator;
+import io.meeds.twitter.gamification.storage.client.TwitterRateLimitGovernor;
+import io.meeds.twitter.gamification.storage.client.TwitterRequestCoalescer;
+import io.meeds.twitter.gamification.storage.client.TwitterTokenStatusCache;
+import io.meeds.twitter.gamification.storage.client.TwitterTransferStatistics;
+import io.meeds.twitter.gamification.storage.client.TwitterResponseParser;
+import io.meeds.twitter.gamification.storage.client.TwitterResponseParsers;
+import io.meeds.twitter.gamification.storage.client.model.TwitterApiError;
+import io.meeds.twitter.gamification.storage.client.model.TwitterRateLimit;
+import io.meeds.twitter.gamification.storage.client.model.TwitterRateLimitStatus;
+import io.meeds.twitter.gamification.storage.client.model.TwitterResponse;
+import io.meeds.twitter.gamification.storage.client.model.TwitterTweet;
+import io.meeds.twitter.gamification.storage.client.model.TwitterUser;
 import io.meeds.twitter.gamification.utils.Utils;
 import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
-import org.apache.http.client.config.CookieSpecs;
-import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpRequestBase;
-import org.apache.http.conn.HttpClientConnectionManager;
-import org.apache.http.impl.DefaultConnectionReuseStrategy;
-import org.apache.http.impl.client.BasicCookieStore;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
 
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.services.log.ExoLogger;
 import org.exoplatform.services.log.Log;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -66,6 +100,10 @@ public class TwitterConsumerStorage {
 
   public static final String AUTHORIZATION                           = "Authorization";
 
+  public static final String ACCEPT_ENCODING                         = "Accept-Encoding";
+
+  public static final String GZIP                                    = "gzip";
+
   public static final String TWITTER_CONNECTION_ERROR                = "twitter.connectionError";
 
   public static final String TWITTER_RETRIEVE_ACCOUNT_ERROR          =
@@ -78,315 +116,643 @@ public class TwitterConsumerStorage {
 
   public static final String TWITTER_RETRIEVE_TWEET_RETWEETERS_ERROR = "Unable to retrieve retweeters for Tweet with id {}.";
 
-  public static final String USERNAME                                = "username";
+  public static final String TWITTER_RETRIEVE_ACCOUNTS_ERROR         = "Unable to retrieve info for Twitter accounts with ids {}.";
+
+  public static final String TWITTER_RETRIEVE_TWEETS_METRICS_ERROR   = "Unable to retrieve metrics for Tweets with ids {}.";
+
+  public static final String PAGINATION_TOKEN                        = "&pagination_token=";
+
+  public static final String REMOTE_ACCOUNT_CACHE                    = "gamification.twitter.remoteAccount";
+
+  public static final int    MAX_USERS_LOOKUP                        = 100;
+
+  public static final int    MAX_TWEETS_LOOKUP                       = 100;
 
   public static final String USERS                                   = "users";
 
-  private HttpClient         client;
+  public static final String USERS_BY_USERNAME_RESOURCE              = "/users/by/username/:username";
+
+  private static final int   TOO_MANY_REQUESTS                       = 429;
+
+  private static final int   MAX_ERROR_MESSAGE_LENGTH                = 500;
+
+  private static final long  TWITTER_EPOCH                           = 1288834974657L;
+
+  private static final long  DAY_MILLIS                              = 24 * 60 * 60 * 1000L;
+
+  @Autowired
+  private TwitterRateLimitGovernor           rateLimitGovernor;
+
+  @Autowired
+  private TwitterCircuitBreaker              circuitBreaker;
+
+  @Autowired
+  private TwitterRequestCoalescer            requestCoalescer;
+
+  @Autowired
+  private TwitterTokenStatusCache            tokenStatusCache;
+
+  @Autowired
+  private TwitterTransferStatistics          transferStatistics;
+
+  @Autowired
+  private TwitterApiUsageLedger              usageLedger;
+
+  @Autowired
+  private CacheManager                       cacheManager;
+
+  @Autowired
+  @Qualifier(TwitterHttpClientConfig.TWITTER_HTTP_CLIENT)
+  private HttpClient                         httpClient;
+
+  @Autowired
+  @Qualifier(TwitterHttpClientConfig.TWITTER_CONNECTION_MANAGER)
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  @Value("${io.meeds.gamification.twitter.mentions.lookbackDays:7}")
+  private long                               mentionsLookbackDays;
+
+  @Value("${io.meeds.gamification.twitter.pagination.maxPages:5}")
+  private int                                maxPages;
+
+  @Value("${io.meeds.gamification.twitter.retry.maxRetries:2}")
+  private int                                maxRetries;
+
+  @Value("${io.meeds.gamification.twitter.retry.delayMillis:500}")
+  private long                               retryDelayMillis;
 
   public RemoteTwitterAccount retrieveTwitterAccount(String twitterUsername, String bearerToken) throws ObjectNotFoundException {
     URI uri = URI.create(TWITTER_API_URL + "/users/by/username/" + twitterUsername + "?user.fields=profile_image_url");
-    String response;
+    TwitterResponse<TwitterUser> response;
     try {
-      response = processGet(uri, bearerToken);
+      response = processGet(TwitterEndpoint.USER_BY_USERNAME, uri, bearerToken, TwitterResponseParsers::parseUser);
     } catch (TwitterConnectionException e) {
-      LOG.warn(TWITTER_RETRIEVE_ACCOUNT_ERROR, twitterUsername, e);
+      logConnectionError(TWITTER_RETRIEVE_ACCOUNT_ERROR, twitterUsername, e);
       return null;
     }
-    if (response == null) {
+    if (response == null || response.getData() == null) {
       throw new ObjectNotFoundException("twitter.accountNotFound");
     }
-    Map<String, Object> resultMap = fromJsonStringToMap(response);
-    RemoteTwitterAccount remoteTwitterAccount = new RemoteTwitterAccount();
-    remoteTwitterAccount.setId(Long.parseLong(Objects.requireNonNull(extractSubItem(resultMap, "data", "id"))));
-    remoteTwitterAccount.setName(extractSubItem(resultMap, "data", "name"));
-    remoteTwitterAccount.setUsername(extractSubItem(resultMap, "data", USERNAME));
-    remoteTwitterAccount.setDescription(extractSubItem(resultMap, "data", "description"));
-    remoteTwitterAccount.setAvatarUrl(extractSubItem(resultMap, "data", "profile_image_url"));
-    return remoteTwitterAccount;
+    return toRemoteTwitterAccount(response.getData());
   }
 
-  @Cacheable(value = "gamification.twitter.remoteAccount")
+  @Cacheable(value = REMOTE_ACCOUNT_CACHE)
   public RemoteTwitterAccount retrieveTwitterAccount(long twitterRemoteId, String bearerToken) {
     URI uri = URI.create(TWITTER_API_URL + "/users/" + twitterRemoteId + "?user.fields=profile_image_url,description");
-    String response;
+    TwitterResponse<TwitterUser> response;
     try {
-      response = processGet(uri, bearerToken);
+      response = processGet(TwitterEndpoint.USER_BY_ID, uri, bearerToken, TwitterResponseParsers::parseUser);
     } catch (TwitterConnectionException e) {
-      LOG.warn(TWITTER_RETRIEVE_ACCOUNT_ERROR, twitterRemoteId, e);
+      logConnectionError(TWITTER_RETRIEVE_ACCOUNT_ERROR, twitterRemoteId, e);
       return null;
     }
-    if (response == null) {
+    if (response == null || response.getData() == null) {
       return null;
     }
-    Map<String, Object> resultMap = fromJsonStringToMap(response);
-    RemoteTwitterAccount remoteTwitterAccount = new RemoteTwitterAccount();
-    remoteTwitterAccount.setId(Long.parseLong(Objects.requireNonNull(extractSubItem(resultMap, "data", "id"))));
-    remoteTwitterAccount.setName(extractSubItem(resultMap, "data", "name"));
-    remoteTwitterAccount.setUsername(extractSubItem(resultMap, "data", USERNAME));
-    remoteTwitterAccount.setDescription(extractSubItem(resultMap, "data", "description"));
-    remoteTwitterAccount.setAvatarUrl(extractSubItem(resultMap, "data", "profile_image_url"));
-    return remoteTwitterAccount;
+    return toRemoteTwitterAccount(response.getData());
   }
 
-  public List<TwitterTrigger> getMentionEvents(TwitterAccount twitterAccount, long lastMentionTweetId, String bearerToken) {
-    StringBuilder builder = new StringBuilder(TWITTER_API_URL);
-    builder.append("/users/");
-    builder.append(twitterAccount.getRemoteId());
-    builder.append("/mentions?tweet.fields=conversation_id&expansions=author_id,entities.mentions.username&max_results=100");
-    if (lastMentionTweetId > 0) {
-      builder.append("&since_id=");
-      builder.append(lastMentionTweetId);
-    }
-    URI uri = URI.create(builder.toString());
-    String response;
-    try {
-      response = processGet(uri, bearerToken);
-    } catch (TwitterConnectionException e) {
-      LOG.warn(TWITTER_RETRIEVE_ACCOUNT_MENTIONS_ERROR, twitterAccount.getRemoteId(), e);
-      return Collections.emptyList();
-    }
-    if (response == null) {
-      return Collections.emptyList();
+  public Map<Long, RemoteTwitterAccount> retrieveTwitterAccounts(Collection<Long> twitterRemoteIds, String bearerToken) {
+    Map<Long, RemoteTwitterAccount> remoteTwitterAccounts = new HashMap<>();
+    Cache cache = cacheManager.getCache(REMOTE_ACCOUNT_CACHE);
+    List<Long> missingIds = new ArrayList<>();
+    for (Long twitterRemoteId : new LinkedHashSet<>(twitterRemoteIds)) {
+      RemoteTwitterAccount remoteTwitterAccount = cache == null ? null
+                                                                : cache.get(new SimpleKey(twitterRemoteId, bearerToken),
+                                                                            RemoteTwitterAccount.class);
+      if (remoteTwitterAccount == null) {
+        missingIds.add(twitterRemoteId);
+      } else {
+        remoteTwitterAccounts.put(twitterRemoteId, remoteTwitterAccount);
+      }
     }
-    // Extract usernames from JSON using Jackson
-    JsonNode rootNode = fromJsonStringToJsonNode(response);
-    JsonNode usersNode = rootNode.path("includes").path(USERS);
-    JsonNode dataNodes = rootNode.path("data");
-    List<TwitterTrigger> twitterEvents = new ArrayList<>();
-    for (JsonNode dataNode : dataNodes) {
-      long tweetId = dataNode.path("id").asLong();
-      long parentTweetId = dataNode.path("conversation_id").asLong();
-      String text = dataNode.path("text").asText();
-      if (tweetId != parentTweetId) {
-        Pattern pattern = Pattern.compile("@" + twitterAccount.getIdentifier());
-        Matcher matcher = pattern.matcher(text);
-        int count = 0;
-        while (matcher.find()) {
-          count++;
-        }
-        if (count <= 1) {
-          continue; // Skip if it is a default replay mention
-        }
+    for (int i = 0; i < missingIds.size(); i += MAX_USERS_LOOKUP) {
+      List<Long> batchIds = missingIds.subList(i, Math.min(i + MAX_USERS_LOOKUP, missingIds.size()));
+      URI uri = URI.create(TWITTER_API_URL + "/users?ids=" + StringUtils.join(batchIds, ",")
+          + "&user.fields=profile_image_url,description");
+      TwitterResponse<List<TwitterUser>> response;
+      try {
+        response = processGet(TwitterEndpoint.USERS_BY_IDS, uri, bearerToken, TwitterResponseParsers::parseUsers);
+      } catch (TwitterConnectionException e) {
+        logConnectionError(TWITTER_RETRIEVE_ACCOUNTS_ERROR, batchIds, e);
+        continue;
+      }
+      if (response == null || response.getData() == null) {
+        continue;
       }
-      long userId = dataNode.path("author_id").asLong();
-      String username = null;
-      for (JsonNode userNode : usersNode) {
-        if (userNode.has("id") && userNode.get("id").asLong() == userId) {
-          username = userNode.path(USERNAME).asText();
-          break; // Break the loop if the item is found
+      for (TwitterUser twitterUser : response.getData()) {
+        RemoteTwitterAccount remoteTwitterAccount = toRemoteTwitterAccount(twitterUser);
+        remoteTwitterAccounts.put(twitterUser.getId(), remoteTwitterAccount);
+        if (cache != null) {
+          // Fill the entry used by single account lookups
+          cache.put(new SimpleKey(twitterUser.getId(), bearerToken), remoteTwitterAccount);
         }
       }
-      TwitterTrigger twitterEvent = new TwitterTrigger(Utils.MENTION_ACCOUNT_EVENT_NAME,
-                                                       username,
-                                                       tweetId,
-                                                       "tweet",
-                                                       twitterAccount.getRemoteId());
-      twitterEvents.add(twitterEvent);
     }
-    return twitterEvents;
+    return remoteTwitterAccounts;
   }
 
-  public Set<String> retrieveTweetLikers(String tweetLink, String bearerToken) {
-    String tweetId = Utils.extractTweetId(tweetLink);
-    if (StringUtils.isNotBlank(tweetId)) {
-      String builder = TWITTER_API_URL + "/tweets/" + tweetId + "/liking_users";
-      URI uri = URI.create(builder);
-      String response;
+  public Map<Long, TweetMetrics> retrieveTweetsMetrics(Collection<Long> tweetIds, String bearerToken) {
+    Map<Long, TweetMetrics> tweetsMetrics = new HashMap<>();
+    List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(tweetIds));
+    for (int i = 0; i < distinctIds.size(); i += MAX_TWEETS_LOOKUP) {
+      List<Long> batchIds = distinctIds.subList(i, Math.min(i + MAX_TWEETS_LOOKUP, distinctIds.size()));
+      URI uri = URI.create(TWITTER_API_URL + "/tweets?ids=" + StringUtils.join(batchIds, ",") + "&tweet.fields=public_metrics");
+      TwitterResponse<List<TwitterTweet>> response;
       try {
-        response = processGet(uri, bearerToken);
+        response = processGet(TwitterEndpoint.TWEETS_LOOKUP, uri, bearerToken, TwitterResponseParsers::parseTweets);
       } catch (TwitterConnectionException e) {
-        LOG.warn(TWITTER_RETRIEVE_TWEET_LIKERS_ERROR, tweetId, e);
-        return Collections.emptySet();
+        logConnectionError(TWITTER_RETRIEVE_TWEETS_METRICS_ERROR, batchIds, e);
+        // Keep metrics of other batches, only this batch remains unknown
+        batchIds.forEach(id -> tweetsMetrics.put(id, null));
+        continue;
+      }
+      if (response != null && response.getData() != null) {
+        for (TwitterTweet twitterTweet : response.getData()) {
+          if (twitterTweet.getPublicMetrics() != null) {
+            tweetsMetrics.put(twitterTweet.getId(),
+                              new TweetMetrics(twitterTweet.getId(),
+                                               twitterTweet.getPublicMetrics().getLikeCount(),
+                                               twitterTweet.getPublicMetrics().getRetweetCount()));
+          }
+        }
       }
-      if (response == null) {
-        return Collections.emptySet();
+    }
+    return tweetsMetrics;
+  }
+
+  /**
+   * Retrieves the mentions of an account posted since its last retrieval. When
+   * a previous retrieval was truncated by the pages budget, the mentions left
+   * in the gap are retrieved first, and newer mentions are retrieved only once
+   * the gap is filled.
+   *
+   * @param twitterAccount {@link TwitterAccount} with its mentions cursors
+   * @param bearerToken Twitter bearer token
+   * @return {@link TwitterMentions} with the cursors to use for the next
+   *         retrieval, or null when no mention could be retrieved
+   */
+  public TwitterMentions retrieveMentions(TwitterAccount twitterAccount, String bearerToken) {
+    long lastMentionTweetId = twitterAccount.getLastMentionTweetId();
+    List<TwitterTrigger> mentionTriggers = new ArrayList<>();
+    boolean gapFilled = false;
+    try {
+      if (twitterAccount.getMentionGapUntilId() != null) {
+        long gapSinceId = twitterAccount.getMentionGapSinceId() == null ? 0 : twitterAccount.getMentionGapSinceId();
+        MentionsRange gapRange = retrieveMentionsRange(twitterAccount, gapSinceId, twitterAccount.getMentionGapUntilId(), bearerToken);
+        mentionTriggers.addAll(gapRange.triggers());
+        if (gapRange.isGap()) {
+          return new TwitterMentions(mentionTriggers, lastMentionTweetId, gapSinceId, gapRange.oldestId());
+        }
+        gapFilled = true;
       }
-      // Extract usernames from JSON using Jackson
-      JsonNode rootNode = fromJsonStringToJsonNode(response);
-      JsonNode dataNodes = rootNode.path("data");
-      Set<String> likers = new HashSet<>();
-      for (JsonNode dataNode : dataNodes) {
-        String username = dataNode.path(USERNAME).asText();
-        likers.add(username);
+      MentionsRange newRange = retrieveMentionsRange(twitterAccount, lastMentionTweetId, null, bearerToken);
+      // Keep newest mentions first
+      mentionTriggers.addAll(0, newRange.triggers());
+      long newestId = Math.max(lastMentionTweetId, newRange.newestId());
+      if (newRange.isGap() && lastMentionTweetId > 0) {
+        LOG.info("Twitter account with id {} has more mentions than retrieved within the limit of {} pages, older ones will be retrieved next time.",
+                 twitterAccount.getRemoteId(),
+                 maxPages);
+        return new TwitterMentions(mentionTriggers, newestId, lastMentionTweetId, newRange.oldestId());
+      } else {
+        return new TwitterMentions(mentionTriggers, newestId, null, null);
       }
-      return likers;
+    } catch (TwitterConnectionException e) {
+      logConnectionError(TWITTER_RETRIEVE_ACCOUNT_MENTIONS_ERROR, twitterAccount.getRemoteId(), e);
+      // Newer mentions will be retrieved next time from the same cursor
+      return gapFilled ? new TwitterMentions(mentionTriggers, lastMentionTweetId, null, null) : null;
     }
-    return Collections.emptySet();
   }
 
-  public Set<String> retrieveTweetRetweeters(String tweetLink, String bearerToken) {
-    String tweetId = Utils.extractTweetId(tweetLink);
-    if (StringUtils.isNotBlank(tweetId)) {
-      String builder = TWITTER_API_URL + "/tweets/" + tweetId + "/retweeted_by";
-      URI uri = URI.create(builder);
-      String response;
-      try {
-        response = processGet(uri, bearerToken);
-      } catch (TwitterConnectionException e) {
-        LOG.warn(TWITTER_RETRIEVE_TWEET_RETWEETERS_ERROR, tweetId, e);
-        return Collections.emptySet();
+  private MentionsRange retrieveMentionsRange(TwitterAccount twitterAccount,
+                                              long sinceId,
+                                              Long untilId,
+                                              String bearerToken) throws TwitterConnectionException {
+    StringBuilder builder = new StringBuilder(TWITTER_API_URL);
+    builder.append("/users/");
+    builder.append(twitterAccount.getRemoteId());
+    builder.append("/mentions?tweet.fields=conversation_id&expansions=author_id,entities.mentions.username&max_results=100");
+    if (sinceId > 0) {
+      long lookbackStartTime = System.currentTimeMillis() - mentionsLookbackDays * DAY_MILLIS;
+      if (getTweetTime(sinceId) > lookbackStartTime) {
+        builder.append("&since_id=");
+        builder.append(sinceId);
+      } else {
+        // Twitter rejects a since_id older than the timeline lookback window,
+        // start within the window instead, with a margin of one hour
+        builder.append("&start_time=");
+        builder.append(Instant.ofEpochMilli(lookbackStartTime + DAY_MILLIS / 24).truncatedTo(ChronoUnit.SECONDS));
       }
-      if (response == null) {
-        return Collections.emptySet();
+    }
+    if (untilId != null) {
+      builder.append("&until_id=");
+      builder.append(untilId);
+    }
+    TwitterPageIterator<List<TwitterTrigger>> pages =
+                                                     pageIterator(TwitterEndpoint.MENTIONS,
+                                                                  builder.toString(),
+                                                                  bearerToken,
+                                                                  jsonParser -> TwitterResponseParsers.parseMentions(jsonParser,
+                                                                                                                      twitterAccount));
+    List<TwitterTrigger> mentionTriggers = new ArrayList<>();
+    long newestId = 0;
+    long oldestId = 0;
+    // Pages are returned newest first, within since_id and until_id bounds
+    while (pages.hasNext()) {
+      TwitterResponse<List<TwitterTrigger>> page = pages.next();
+      if (page != null && page.getData() != null) {
+        mentionTriggers.addAll(page.getData());
       }
-      // Extract usernames from JSON using Jackson
-      JsonNode rootNode = fromJsonStringToJsonNode(response);
-      JsonNode dataNodes = rootNode.path("data");
-      Set<String> retweeters = new HashSet<>();
-      for (JsonNode dataNode : dataNodes) {
-        String username = dataNode.path(USERNAME).asText();
-        retweeters.add(username);
+      if (page != null && page.getMeta() != null) {
+        // Ignored replies are included in meta ids, to not retrieve them again
+        newestId = Math.max(newestId, page.getMeta().getNewestId());
+        if (page.getMeta().getOldestId() > 0) {
+          oldestId = page.getMeta().getOldestId();
+        }
       }
-      return retweeters;
     }
-    return Collections.emptySet();
+    return new MentionsRange(mentionTriggers, newestId, oldestId, pages.isTruncated() && oldestId > 0);
+  }
+
+  private long getTweetTime(long tweetId) {
+    // Tweet Ids are snowflake Ids, starting with their creation timestamp
+    return (tweetId >> 22) + TWITTER_EPOCH;
+  }
+
+  public TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken) {
+    return retrieveTweetLikers(tweetLink, bearerToken, null);
+  }
+
+  public TweetReactors retrieveTweetLikers(String tweetLink, String bearerToken, long[] knownLikerIds) {
+    return retrieveTweetReactors(TwitterEndpoint.LIKING_USERS,
+                                 "/liking_users",
+                                 tweetLink,
+                                 bearerToken,
+                                 knownLikerIds,
+                                 TWITTER_RETRIEVE_TWEET_LIKERS_ERROR);
+  }
+
+  public TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken) {
+    return retrieveTweetRetweeters(tweetLink, bearerToken, null);
+  }
+
+  public TweetReactors retrieveTweetRetweeters(String tweetLink, String bearerToken, long[] knownRetweeterIds) {
+    return retrieveTweetReactors(TwitterEndpoint.RETWEETED_BY,
+                                 "/retweeted_by",
+                                 tweetLink,
+                                 bearerToken,
+                                 knownRetweeterIds,
+                                 TWITTER_RETRIEVE_TWEET_RETWEETERS_ERROR);
   }
 
   public TokenStatus checkTwitterTokenStatus(String bearerToken) {
-    TokenStatus tokenStatus = new TokenStatus();
     if (StringUtils.isBlank(bearerToken)) {
-      return tokenStatus;
+      return new TokenStatus();
     }
+    TokenStatus tokenStatus = tokenStatusCache.get(bearerToken);
+    if (tokenStatus == null) {
+      tokenStatus = probeTwitterTokenStatus(bearerToken);
+      if (tokenStatus != null) {
+        tokenStatusCache.put(bearerToken, tokenStatus);
+      }
+    }
+    return tokenStatus;
+  }
+
+  private TokenStatus probeTwitterTokenStatus(String bearerToken) {
+    TokenStatus tokenStatus = new TokenStatus();
     URI uri = URI.create("https://api.twitter.com/1.1/application/rate_limit_status.json?resources=users");
-    String response;
-    HttpClient httpClient = getHttpClient();
     HttpGet request = new HttpGet(uri);
     request.setHeader(AUTHORIZATION, BEARER + bearerToken);
-    HttpResponse httpResponse;
+    request.setHeader(ACCEPT_ENCODING, GZIP);
+    HttpResponse httpResponse = null;
     try {
       httpResponse = httpClient.execute(request);
+      usageLedger.record(TwitterEndpoint.RATE_LIMIT_STATUS, bearerToken, 0);
+      updateRateLimit(TwitterEndpoint.RATE_LIMIT_STATUS, httpResponse);
       boolean isSuccess = httpResponse != null
           && (httpResponse.getStatusLine().getStatusCode() >= 200 && httpResponse.getStatusLine().getStatusCode() < 300);
       if (isSuccess) {
-        response = processSuccessResponse(httpResponse);
-        Map<String, Object> resultMap = fromJsonStringToMap(response);
-        String remaining = extractSubItem(resultMap, "resources", USERS, "/users/by/username/:username", "remaining");
-        String reset = extractSubItem(resultMap, "resources", USERS, "/users/by/username/:username", "reset");
+        TwitterRateLimitStatus rateLimitStatus = processSuccessResponse(TwitterEndpoint.RATE_LIMIT_STATUS,
+                                                                        httpResponse,
+                                                                        TwitterResponseParsers::parseRateLimitStatus);
+        TwitterRateLimit rateLimit = getResourceRateLimit(rateLimitStatus, USERS, USERS_BY_USERNAME_RESOURCE);
+        circuitBreaker.recordSuccess(TwitterEndpoint.RATE_LIMIT_STATUS, bearerToken);
         tokenStatus.setIsValid(true);
-        if (StringUtils.isNotBlank(remaining)) {
-          tokenStatus.setRemaining(Long.parseLong(remaining));
-        }
-        if (StringUtils.isNotBlank(reset)) {
-          tokenStatus.setReset(Long.parseLong(reset));
+        if (rateLimit != null) {
+          tokenStatus.setRemaining(rateLimit.getRemaining());
+          tokenStatus.setReset(rateLimit.getReset());
         }
         return tokenStatus;
       } else if (httpResponse != null
           && (httpResponse.getStatusLine().getStatusCode() == 401 || httpResponse.getStatusLine().getStatusCode() == 403)) {
+        if (httpResponse.getStatusLine().getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+          circuitBreaker.rejectToken(bearerToken);
+        }
         return new TokenStatus(false, null, null);
       } else {
         return null;
       }
     } catch (IOException e) {
       throw new IllegalStateException("Unable to retrieve Twitter bearer token status", e);
+    } finally {
+      if (httpResponse != null) {
+        EntityUtils.consumeQuietly(httpResponse.getEntity());
+      }
     }
   }
 
-  private String processGet(URI uri, String bearerToken) throws TwitterConnectionException {
-    HttpClient httpClient = getHttpClient();
-    HttpGet request = new HttpGet(uri);
+  public boolean isTwitterApiAvailable(TwitterEndpoint endpoint, String bearerToken) {
+    return circuitBreaker.isClosed(endpoint, bearerToken);
+  }
+
+  public List<RateLimitStatus> getRateLimitStatuses() {
+    return rateLimitGovernor.getRateLimitStatuses();
+  }
+
+  public List<TransferStatistics> getTransferStatistics() {
+    return transferStatistics.getTransferStatistics();
+  }
+
+  public ApiUsageStatus getApiUsageStatus(String bearerToken) {
+    return usageLedger.getUsageStatus(bearerToken);
+  }
+
+  public ConnectionPoolStatus getConnectionPoolStatus() {
+    PoolStats poolStats = connectionManager.getTotalStats();
+    return new ConnectionPoolStatus(poolStats.getLeased(), poolStats.getAvailable(), poolStats.getPending(), poolStats.getMax());
+  }
+
+  private TweetReactors retrieveTweetReactors(TwitterEndpoint endpoint,
+                                              String reactionPath,
+                                              String tweetLink,
+                                              String bearerToken,
+                                              long[] knownReactorIds,
+                                              String errorMessage) {
+    String tweetId = Utils.extractTweetId(tweetLink);
+    if (StringUtils.isBlank(tweetId)) {
+      return new TweetReactors(new long[0], Collections.emptyMap());
+    }
+    TwitterPageIterator<Map<Long, String>> pages = pageIterator(endpoint,
+                                                                TWITTER_API_URL + "/tweets/" + tweetId + reactionPath
+                                                                    + "?max_results=100",
+                                                                bearerToken,
+                                                                TwitterResponseParsers::parseReactors);
+    Map<Long, String> usernames = new HashMap<>();
     try {
+      while (pages.hasNext()) {
+        TwitterResponse<Map<Long, String>> page = pages.next();
+        if (page != null && page.getData() != null) {
+          usernames.putAll(page.getData());
+          if (containsAny(knownReactorIds, page.getData().keySet())) {
+            // Reactors are returned newest first, next pages are already known
+            return newTweetReactors(usernames, knownReactorIds);
+          }
+        }
+      }
+    } catch (TwitterConnectionException e) {
+      logConnectionError(errorMessage, tweetId, e);
+      return null;
+    }
+    // Keep stored reactors which weren't reached within the pages budget
+    return newTweetReactors(usernames, pages.isTruncated() ? knownReactorIds : null);
+  }
+
+  private TweetReactors newTweetReactors(Map<Long, String> usernames, long[] knownReactorIds) {
+    LongStream ids = usernames.keySet().stream().mapToLong(Long::longValue);
+    if (knownReactorIds != null) {
+      ids = LongStream.concat(ids, Arrays.stream(knownReactorIds));
+    }
+    return new TweetReactors(ids.sorted().distinct().toArray(), usernames);
+  }
+
+  private boolean containsAny(long[] sortedIds, Collection<Long> ids) {
+    if (sortedIds == null || sortedIds.length == 0) {
+      return false;
+    }
+    return ids.stream().anyMatch(id -> Arrays.binarySearch(sortedIds, id) >= 0);
+  }
+
+  private <T> TwitterPageIterator<T> pageIterator(TwitterEndpoint endpoint,
+                                                  String uri,
+                                                  String bearerToken,
+                                                  TwitterResponseParser<TwitterResponse<T>> responseParser) {
+    return new TwitterPageIterator<>(paginationToken -> processGet(endpoint,
+                                                                   URI.create(paginationToken == null ? uri
+                                                                                                      : uri + PAGINATION_TOKEN
+                                                                                                          + paginationToken),
+                                                                   bearerToken,
+                                                                   responseParser),
+                                     maxPages);
+  }
+
+  private <T> T processGet(TwitterEndpoint endpoint,
+                           URI uri,
+                           String bearerToken,
+                           TwitterResponseParser<T> responseParser) throws TwitterConnectionException {
+    return requestCoalescer.execute(uri.toString(),
+                                    bearerToken,
+                                    () -> processGetWithRetry(endpoint, uri, bearerToken, responseParser));
+  }
+
+  private <T> T processGetWithRetry(TwitterEndpoint endpoint,
+                                    URI uri,
+                                    String bearerToken,
+                                    TwitterResponseParser<T> responseParser) throws TwitterConnectionException {
+    circuitBreaker.check(endpoint, bearerToken);
+    int attempt = 0;
+    while (true) { // NOSONAR
+      rateLimitGovernor.acquire(endpoint);
+      HttpGet request = new HttpGet(uri);
       request.setHeader(AUTHORIZATION, BEARER + bearerToken);
-      return processRequest(httpClient, request);
-    } catch (IOException e) {
-      throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR, e);
+      request.setHeader(ACCEPT_ENCODING, GZIP);
+      TwitterConnectionException failure;
+      try {
+        T result = processRequest(endpoint, bearerToken, request, responseParser);
+        circuitBreaker.recordSuccess(endpoint, bearerToken);
+        return result;
+      } catch (JsonProcessingException e) {
+        throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR, e);
+      } catch (IOException e) {
+        failure = new TwitterConnectionException(TWITTER_CONNECTION_ERROR, e);
+      } catch (TwitterConnectionException e) {
+        if (e.getStatusCode() == HttpStatus.SC_UNAUTHORIZED) {
+          circuitBreaker.rejectToken(bearerToken);
+        }
+        if (e.getStatusCode() < HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+          // Not a transient failure, retrying wouldn't help
+          throw e;
+        }
+        failure = e;
+      }
+      if (attempt >= maxRetries) {
+        circuitBreaker.recordFailure(endpoint);
+        throw failure;
+      }
+      waitBeforeRetry(endpoint, attempt++, failure);
     }
   }
 
-  private String processRequest(HttpClient httpClient, HttpRequestBase request) throws IOException, TwitterConnectionException {
+  private void waitBeforeRetry(TwitterEndpoint endpoint,
+                               int attempt,
+                               TwitterConnectionException failure) throws TwitterConnectionException {
+    // Exponential backoff with full jitter, to not retry in sync with other
+    // callers
+    long maxDelay = retryDelayMillis << Math.min(attempt, 10);
+    long delay = ThreadLocalRandom.current().nextLong(maxDelay + 1);
+    LOG.debug("Twitter endpoint {} call failed, retry in {}ms", endpoint, delay);
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw failure;
+    }
+  }
+
+  private <T> T processRequest(TwitterEndpoint endpoint,
+                               String bearerToken,
+                               HttpRequestBase request,
+                               TwitterResponseParser<T> responseParser) throws IOException, TwitterConnectionException {
     HttpResponse response = httpClient.execute(request);
-    boolean isSuccess = response != null
-        && (response.getStatusLine().getStatusCode() >= 200 && response.getStatusLine().getStatusCode() < 300);
-    if (isSuccess) {
-      return processSuccessResponse(response);
-    } else if (response != null && response.getStatusLine().getStatusCode() == 404) {
-      return null;
-    } else {
-      processErrorResponse(response);
-      return null;
+    if (response == null) {
+      throw new TwitterConnectionException("Error when connecting twitter");
+    }
+    long readCount = 0;
+    try {
+      updateRateLimit(endpoint, response);
+      int statusCode = response.getStatusLine().getStatusCode();
+      tokenStatusCache.update(endpoint,
+                              bearerToken,
+                              statusCode,
+                              getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_REMAINING),
+                              getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_RESET));
+      if (statusCode >= 200 && statusCode < 300) {
+        T result = processSuccessResponse(endpoint, response, responseParser);
+        readCount = getReadCount(result);
+        return result;
+      } else if (statusCode == HttpStatus.SC_NOT_FOUND) {
+        return null;
+      } else if (statusCode == TOO_MANY_REQUESTS) {
+        long reset = rateLimitGovernor.exhaust(endpoint, getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_RESET));
+        throw new TwitterRateLimitException(endpoint, reset);
+      } else {
+        processErrorResponse(response);
+        return null;
+      }
+    } finally {
+      usageLedger.record(endpoint, bearerToken, readCount);
+      // Release the connection to the pool, even when the body isn't read
+      EntityUtils.consumeQuietly(response.getEntity());
     }
   }
 
-  private String processSuccessResponse(HttpResponse response) throws IOException {
-    if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NO_CONTENT) {
-      return String.valueOf(HttpStatus.SC_NO_CONTENT);
-    } else if ((response.getStatusLine().getStatusCode() == HttpStatus.SC_CREATED
-        || response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) && response.getEntity() != null
-        && response.getEntity().getContentLength() != 0) {
-      try (InputStream is = response.getEntity().getContent()) {
-        return IOUtils.toString(is, StandardCharsets.UTF_8);
+  private <T> T processSuccessResponse(TwitterEndpoint endpoint,
+                                       HttpResponse response,
+                                       TwitterResponseParser<T> responseParser) throws IOException {
+    int statusCode = response.getStatusLine().getStatusCode();
+    HttpEntity entity = response.getEntity();
+    if ((statusCode == HttpStatus.SC_CREATED || statusCode == HttpStatus.SC_OK) && entity != null
+        && entity.getContentLength() != 0) {
+      try (CountingInputStream wireStream = new CountingInputStream(entity.getContent())) {
+        CountingInputStream decodedStream = new CountingInputStream(decodeContent(entity, wireStream));
+        try (JsonParser jsonParser = TwitterResponseParsers.createParser(decodedStream)) {
+          T result = responseParser.parse(jsonParser);
+          if (result instanceof TwitterResponse<?> twitterResponse) {
+            logResponseErrors(endpoint, twitterResponse);
+          }
+          return result;
+        } finally {
+          transferStatistics.record(endpoint, wireStream.getByteCount(), decodedStream.getByteCount());
+        }
       }
     } else {
       return null;
     }
   }
 
+  private long getReadCount(Object result) {
+    // Posts filtered out while parsing are read and charged as well
+    return result instanceof TwitterResponse<?> twitterResponse ? twitterResponse.getDataCount() : 0;
+  }
+
   private void processErrorResponse(HttpResponse response) throws TwitterConnectionException, IOException {
-    if (response == null) {
-      throw new TwitterConnectionException("Error when connecting twitter");
-    } else if (response.getEntity() != null) {
-      try (InputStream is = response.getEntity().getContent()) {
+    if (response.getEntity() != null) {
+      try (InputStream is = decodeContent(response.getEntity(), response.getEntity().getContent())) {
         String errorMessage = IOUtils.toString(is, StandardCharsets.UTF_8);
-        if (StringUtils.contains(errorMessage, "")) {
-          throw new TwitterConnectionException(errorMessage);
-        } else {
-          throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR + errorMessage);
-        }
+        throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR + " " + response.getStatusLine().getStatusCode() + ": "
+            + StringUtils.abbreviate(errorMessage, MAX_ERROR_MESSAGE_LENGTH), response.getStatusLine().getStatusCode());
       }
     } else {
-      throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR + response.getStatusLine().getStatusCode());
+      throw new TwitterConnectionException(TWITTER_CONNECTION_ERROR + " " + response.getStatusLine().getStatusCode(),
+                                           response.getStatusLine().getStatusCode());
     }
   }
 
-  private HttpClient getHttpClient() {
-    if (client == null) {
-      RequestConfig requestConfig = RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD).build();
-      HttpClientConnectionManager clientConnectionManager = getClientConnectionManager();
-      HttpClientBuilder httpClientBuilder = HttpClients.custom()
-                                                       .setDefaultRequestConfig(requestConfig)
-                                                       .setDefaultCookieStore(new BasicCookieStore())
-                                                       .setConnectionManager(clientConnectionManager)
-                                                       .setConnectionReuseStrategy(new DefaultConnectionReuseStrategy());
-      client = httpClientBuilder.build();
+  private InputStream decodeContent(HttpEntity entity, InputStream inputStream) throws IOException {
+    Header contentEncoding = entity.getContentEncoding();
+    if (contentEncoding != null && GZIP.equalsIgnoreCase(contentEncoding.getValue())) {
+      // Decompress while parsing, without buffering the whole content
+      return new GZIPInputStream(inputStream);
+    } else {
+      return inputStream;
     }
-    return client;
   }
 
-  private HttpClientConnectionManager getClientConnectionManager() {
-    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
-    connectionManager.setDefaultMaxPerRoute(10);
-    return connectionManager;
+  private void updateRateLimit(TwitterEndpoint endpoint, HttpResponse response) {
+    if (response != null) {
+      rateLimitGovernor.update(endpoint,
+                               getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_HEADER),
+                               getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_REMAINING),
+                               getHeaderValue(response, TwitterRateLimitGovernor.RATE_LIMIT_RESET));
+    }
   }
 
-  @SuppressWarnings("unchecked")
-  private Map<String, Object> fromJsonStringToMap(String jsonString) {
-    try {
-      ObjectMapper objectMapper = new ObjectMapper();
-      return objectMapper.readValue(jsonString, Map.class);
-    } catch (IOException e) {
-      throw new IllegalStateException("Error converting JSON string to map: " + jsonString, e);
+  private String getHeaderValue(HttpResponse response, String headerName) {
+    Header header = response.getFirstHeader(headerName);
+    return header != null ? header.getValue() : null;
+  }
+
+  private void logConnectionError(String message, Object identifier, TwitterConnectionException e) {
+    if (e instanceof TwitterRateLimitException) {
+      LOG.info(message + " Rate limit reached, the call is postponed.", identifier);
+    } else if (e instanceof TwitterCircuitOpenException) {
+      LOG.debug(message + " Twitter API is unavailable, the call is skipped.", identifier);
+    } else {
+      LOG.warn(message, identifier, e);
     }
   }
 
-  private JsonNode fromJsonStringToJsonNode(String jsonString) {
-    try {
-      ObjectMapper objectMapper = new ObjectMapper();
-      return objectMapper.readTree(jsonString);
-    } catch (IOException e) {
-      throw new IllegalStateException("Error converting JSON string to JsonNode: " + jsonString, e);
+  private void logResponseErrors(TwitterEndpoint endpoint, TwitterResponse<?> response) {
+    if (CollectionUtils.isEmpty(response.getErrors())) {
+      return;
+    }
+    for (TwitterApiError error : response.getErrors()) {
+      LOG.info("Twitter endpoint {} returned error '{}' for {} '{}': {}",
+               endpoint,
+               error.getTitle(),
+               error.getResourceType(),
+               error.getValue(),
+               error.getDetail());
     }
   }
 
-  @SuppressWarnings("unchecked")
-  private String extractSubItem(Map<String, Object> map, String... keys) {
-    Object currentObject = map;
-    for (String key : keys) {
-      if (currentObject instanceof Map) {
-        currentObject = ((Map<String, Object>) currentObject).get(key);
-      } else {
-        return null;
-      }
+  private TwitterRateLimit getResourceRateLimit(TwitterRateLimitStatus rateLimitStatus, String family, String resource) {
+    if (rateLimitStatus == null || rateLimitStatus.getResources() == null) {
+      return null;
     }
-    return currentObject != null ? currentObject.toString() : null;
+    Map<String, TwitterRateLimit> familyRateLimits = rateLimitStatus.getResources().get(family);
+    return familyRateLimits == null ? null : familyRateLimits.get(resource);
+  }
+
+  private RemoteTwitterAccount toRemoteTwitterAccount(TwitterUser twitterUser) {
+    return new RemoteTwitterAccount(twitterUser.getId(),
+                                    twitterUser.getUsername(),
+                                    twitterUser.getName(),
+                                    twitterUser.getDescription(),
+                                    twitterUser.getProfileImageUrl());
+  }
+
+  private record MentionsRange(List<TwitterTrigger> triggers, long newestId, long oldestId, boolean isGap) {
   }
 }
@@ -0,0 +1,111 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.dao.TwitterJobLockDAO;
+import io.meeds.twitter.gamification.entity.TwitterJobLockEntity;
+
+@Repository
+public class TwitterJobLockStorage {
+
+  private static final Log  LOG = ExoLogger.getLogger(TwitterJobLockStorage.class);
+
+  @Autowired
+  private TwitterJobLockDAO twitterJobLockDAO;
+
+  /**
+   * Acquires or renews the lease of a lock when it's free, expired or already
+   * owned by the designated owner. Concurrent acquisitions are arbitrated by
+   * the lock row version: only one of them is saved.
+   *
+   * @param name lock name
+   * @param owner lock owner identifier
+   * @param leaseMillis lease duration in milliseconds
+   * @return true if the lease is acquired, else false
+   */
+  public boolean tryAcquire(String name, String owner, long leaseMillis) {
+    Date now = new Date();
+    TwitterJobLockEntity twitterJobLockEntity = twitterJobLockDAO.findById(name).orElse(null);
+    if (twitterJobLockEntity == null) {
+      twitterJobLockEntity = new TwitterJobLockEntity();
+      twitterJobLockEntity.setName(name);
+    } else if (!owner.equals(twitterJobLockEntity.getOwner()) && twitterJobLockEntity.getExpiryDate().after(now)) {
+      return false;
+    }
+    twitterJobLockEntity.setOwner(owner);
+    twitterJobLockEntity.setExpiryDate(new Date(now.getTime() + leaseMillis));
+    try {
+      twitterJobLockDAO.saveAndFlush(twitterJobLockEntity);
+      return true;
+    } catch (RuntimeException e) {
+      LOG.debug("Lock {} acquired concurrently by another owner", name, e);
+      return false;
+    }
+  }
+
+  /**
+   * Renews the lease of a lock only if it's still owned by the designated
+   * owner.
+   *
+   * @param name lock name
+   * @param owner lock owner identifier
+   * @param leaseMillis lease duration in milliseconds
+   * @return true if the lease is renewed, false if the lock was lost
+   */
+  public boolean renew(String name, String owner, long leaseMillis) {
+    TwitterJobLockEntity twitterJobLockEntity = twitterJobLockDAO.findById(name).orElse(null);
+    if (twitterJobLockEntity == null || !owner.equals(twitterJobLockEntity.getOwner())) {
+      return false;
+    }
+    twitterJobLockEntity.setExpiryDate(new Date(System.currentTimeMillis() + leaseMillis));
+    try {
+      twitterJobLockDAO.saveAndFlush(twitterJobLockEntity);
+      return true;
+    } catch (RuntimeException e) {
+      LOG.debug("Lock {} acquired concurrently by another owner", name, e);
+      return false;
+    }
+  }
+
+  /**
+   * Releases a lock if it's owned by the designated owner, so that another
+   * owner can acquire it without waiting for the lease expiry.
+   *
+   * @param name lock name
+   * @param owner lock owner identifier
+   */
+  public void release(String name, String owner) {
+    TwitterJobLockEntity twitterJobLockEntity = twitterJobLockDAO.findById(name).orElse(null);
+    if (twitterJobLockEntity != null && owner.equals(twitterJobLockEntity.getOwner())) {
+      twitterJobLockEntity.setExpiryDate(new Date());
+      try {
+        twitterJobLockDAO.saveAndFlush(twitterJobLockEntity);
+      } catch (RuntimeException e) {
+        LOG.debug("Lock {} acquired concurrently by another owner", name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import org.exoplatform.commons.api.persistence.ExoTransactional;
+
+import io.meeds.twitter.gamification.dao.TwitterPollingNodeDAO;
+import io.meeds.twitter.gamification.entity.TwitterPollingNodeEntity;
+
+@Repository
+public class TwitterPollingNodeStorage {
+
+  @Autowired
+  private TwitterPollingNodeDAO twitterPollingNodeDAO;
+
+  public void heartbeat(String nodeId) {
+    TwitterPollingNodeEntity twitterPollingNodeEntity = twitterPollingNodeDAO.findById(nodeId).orElse(null);
+    if (twitterPollingNodeEntity == null) {
+      twitterPollingNodeEntity = new TwitterPollingNodeEntity();
+      twitterPollingNodeEntity.setId(nodeId);
+    }
+    twitterPollingNodeEntity.setHeartbeatDate(new Date());
+    twitterPollingNodeDAO.save(twitterPollingNodeEntity);
+  }
+
+  public List<String> getLiveNodes(Date heartbeatDate) {
+    return twitterPollingNodeDAO.findByHeartbeatDateAfterOrderByIdAsc(heartbeatDate)
+                                .stream()
+                                .map(TwitterPollingNodeEntity::getId)
+                                .toList();
+  }
+
+  /**
+   * Removes the nodes which stopped sending heartbeats without unregistering,
+   * typically after a crash.
+   *
+   * @param heartbeatDate oldest heartbeat date of live nodes
+   * @return count of removed nodes
+   */
+  @ExoTransactional
+  public int removeDeadNodes(Date heartbeatDate) {
+    return twitterPollingNodeDAO.deleteByHeartbeatDateBefore(heartbeatDate);
+  }
+
+  public void removeNode(String nodeId) {
+    if (twitterPollingNodeDAO.existsById(nodeId)) {
+      twitterPollingNodeDAO.deleteById(nodeId);
+    }
+  }
+}
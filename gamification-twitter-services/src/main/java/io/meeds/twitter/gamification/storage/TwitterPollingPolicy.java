@@ -0,0 +1,77 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+
+/**
+ * Computes the polling interval of watched Twitter accounts and tweets: the
+ * interval of an item which produced new activity is divided by the backoff
+ * factor, while the interval of a quiet item is multiplied by it, within the
+ * configured bounds. Next polls are postponed when the Twitter API consumption
+ * forecast exceeds the monthly cap.
+ */
+@Component
+public class TwitterPollingPolicy {
+
+  @Autowired
+  private TwitterApiUsageLedger usageLedger;
+
+  @Value("${io.meeds.gamification.twitter.polling.initialIntervalSeconds:900}")
+  private long                  initialInterval;
+
+  @Value("${io.meeds.gamification.twitter.polling.minIntervalSeconds:300}")
+  private long                  minInterval;
+
+  @Value("${io.meeds.gamification.twitter.polling.maxIntervalSeconds:86400}")
+  private long                  maxInterval;
+
+  @Value("${io.meeds.gamification.twitter.polling.backoffFactor:2}")
+  private double                backoffFactor;
+
+  /**
+   * @param currentInterval current polling interval in seconds, null if the
+   *          item wasn't polled yet
+   * @param active whether the item produced new activity on last poll
+   * @return next polling interval in seconds
+   */
+  public long getNextInterval(Long currentInterval, boolean active) {
+    long interval = currentInterval == null || currentInterval <= 0 ? initialInterval : currentInterval;
+    double factor = Math.max(backoffFactor, 1);
+    interval = Math.round(active ? interval / factor : interval * factor);
+    return Math.min(Math.max(interval, minInterval), Math.max(maxInterval, minInterval));
+  }
+
+  /**
+   * @param interval polling interval in seconds
+   * @return next polling date of an item polled now, postponed when the
+   *         monthly API budget would be exceeded
+   */
+  public Date getNextPollDate(long interval) {
+    // The stored interval isn't stretched, to recover the adaptive interval
+    // once throttling isn't needed anymore
+    double throttleFactor = Math.max(usageLedger.getThrottleFactor(), 1);
+    return new Date(System.currentTimeMillis() + Math.round(interval * throttleFactor * 1000));
+  }
+}
@@ -18,16 +18,25 @@
 package io.meeds.twitter.gamification.storage;
 
 import io.meeds.twitter.gamification.dao.TwitterTweetDAO;
+import io.meeds.twitter.gamification.dao.TwitterTweetReactorDAO;
+import io.meeds.twitter.gamification.dao.TwitterTweetReactorUsername;
 import io.meeds.twitter.gamification.entity.TwitterTweetEntity;
 import io.meeds.twitter.gamification.model.Tweet;
 import io.meeds.twitter.gamification.storage.mapper.TwitterTweetMapper;
+import io.meeds.twitter.gamification.utils.ReactorIdsCodec;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static io.meeds.twitter.gamification.storage.mapper.TwitterTweetMapper.fromEntity;
 import static io.meeds.twitter.gamification.storage.mapper.TwitterTweetMapper.toEntity;
@@ -35,8 +44,16 @@ import static io.meeds.twitter.gamification.storage.mapper.TwitterTweetMapper.to
 @Repository
 public class TwitterTweetStorage {
 
+  private static final int       LEGACY_REACTORS_QUERY_SIZE = 500;
+
+  @Autowired
+  private TwitterTweetDAO        twitterTweetDAO;
+
   @Autowired
-  private TwitterTweetDAO twitterTweetDAO;
+  private TwitterTweetReactorDAO twitterTweetReactorDAO;
+
+  @Autowired
+  private TwitterPollingPolicy   pollingPolicy;
 
   public Tweet addTweetToWatch(Tweet tweet) {
     Tweet existsTweet = getTweetByLink(tweet.getTweetLink());
@@ -49,26 +66,96 @@ public class TwitterTweetStorage {
     }
   }
 
-  public Tweet updateTweetReactions(long tweetId, Set<String> likers, Set<String> retweeters) {
+  /**
+   * Replaces the reactors of a tweet, identified by their Ids, without loading
+   * the tweet
+   *
+   * @param tweetId tweet technical id
+   * @param likerIds liker Ids, sorted in ascending order
+   * @param retweeterIds retweeter Ids, sorted in ascending order
+   * @return false if the tweet doesn't exist, else true
+   */
+  public boolean updateTweetReactors(long tweetId, long[] likerIds, long[] retweeterIds) {
+    return twitterTweetDAO.updateReactorIds(tweetId,
+                                            ReactorIdsCodec.encode(likerIds),
+                                            ReactorIdsCodec.encode(retweeterIds)) > 0;
+  }
+
+  /**
+   * Removes reactors usernames stored before reactors were identified by their
+   * Ids, once their Ids are stored
+   *
+   * @param tweetId tweet technical id
+   * @param likers likers usernames
+   * @param retweeters retweeters usernames
+   */
+  public void removeLegacyTweetReactors(long tweetId, Set<String> likers, Set<String> retweeters) {
+    twitterTweetReactorDAO.removeLikers(tweetId, likers);
+    twitterTweetReactorDAO.removeRetweeters(tweetId, retweeters);
+  }
+
+  /**
+   * Loads the reactors usernames stored before reactors were identified by
+   * their Ids into the designated tweets
+   *
+   * @param tweets {@link Tweet}s to load reactors usernames for
+   */
+  public void loadLegacyTweetReactors(List<Tweet> tweets) {
+    Map<Long, Tweet> tweetsById = tweets.stream()
+                                        .collect(Collectors.toMap(Tweet::getTweetId,
+                                                                  Function.identity(),
+                                                                  (tweet, duplicatedTweet) -> tweet));
+    tweetsById.values().forEach(tweet -> {
+      tweet.setLikers(new HashSet<>());
+      tweet.setRetweeters(new HashSet<>());
+    });
+    List<Long> tweetIds = new ArrayList<>(tweetsById.keySet());
+    // Keep IN clauses within databases limits
+    for (int i = 0; i < tweetIds.size(); i += LEGACY_REACTORS_QUERY_SIZE) {
+      List<Long> ids = tweetIds.subList(i, Math.min(i + LEGACY_REACTORS_QUERY_SIZE, tweetIds.size()));
+      for (TwitterTweetReactorUsername liker : twitterTweetDAO.findLegacyLikers(ids)) {
+        tweetsById.get(liker.getTweetId()).getLikers().add(liker.getUsername());
+      }
+      for (TwitterTweetReactorUsername retweeter : twitterTweetDAO.findLegacyRetweeters(ids)) {
+        tweetsById.get(retweeter.getTweetId()).getRetweeters().add(retweeter.getUsername());
+      }
+    }
+  }
+
+  public Tweet updateTweetMetrics(long tweetId, long likeCount, long retweetCount) {
     TwitterTweetEntity twitterTweetEntity = twitterTweetDAO.findById(tweetId).orElse(null);
     if (twitterTweetEntity == null) {
       return null;
     }
-    twitterTweetEntity.setLikers(likers);
-    twitterTweetEntity.setRetweeters(retweeters);
+    twitterTweetEntity.setLikeCount(likeCount);
+    twitterTweetEntity.setRetweetCount(retweetCount);
     return fromEntity(twitterTweetDAO.save(twitterTweetEntity));
   }
 
   public Page<Tweet> getTweets(Pageable pageable) {
-    Page<TwitterTweetEntity> page = twitterTweetDAO.findAll(pageable);
-    return page.map(TwitterTweetMapper::fromEntity);
+    return twitterTweetDAO.findListings(pageable).map(TwitterTweetMapper::fromListing);
   }
 
   public List<Tweet> getTweets() {
-    List<TwitterTweetEntity> twitterTweetEntities = twitterTweetDAO.findAll();
+    return twitterTweetDAO.findListings().stream().map(TwitterTweetMapper::fromListing).toList();
+  }
+
+  public List<Tweet> getDueTweets(Date date) {
+    List<TwitterTweetEntity> twitterTweetEntities = twitterTweetDAO.findDueTweets(date);
     return twitterTweetEntities.stream().map(TwitterTweetMapper::fromEntity).toList();
   }
 
+  public Tweet updateTweetPolling(long tweetId, boolean active) {
+    TwitterTweetEntity twitterTweetEntity = twitterTweetDAO.findById(tweetId).orElse(null);
+    if (twitterTweetEntity == null) {
+      return null;
+    }
+    long pollInterval = pollingPolicy.getNextInterval(twitterTweetEntity.getPollInterval(), active);
+    twitterTweetEntity.setPollInterval(pollInterval);
+    twitterTweetEntity.setNextPollDate(pollingPolicy.getNextPollDate(pollInterval));
+    return fromEntity(twitterTweetDAO.save(twitterTweetEntity));
+  }
+
   public long countTweets() {
     return twitterTweetDAO.count();
   }
@@ -0,0 +1,250 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.model.ApiUsage;
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.storage.TwitterApiUsageStorage;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records the Twitter API consumption, per day, endpoint and bearer token, in
+ * a persisted ledger. The usage is accumulated in memory and periodically
+ * added to the ledger, which is used to forecast the month-end consumption
+ * of read posts and to compute the factor by which polling intervals have to
+ * be stretched to stay under the configured monthly cap.
+ */
+@Component
+public class TwitterApiUsageLedger {
+
+  private static final Log                  LOG            = ExoLogger.getLogger(TwitterApiUsageLedger.class);
+
+  private static final long                 DAY_MILLIS     = Duration.ofDays(1).toMillis();
+
+  private final Map<UsageKey, PendingUsage> pendingUsages  = new ConcurrentHashMap<>();
+
+  private final Map<String, String>         tokenHashes    = new ConcurrentHashMap<>();
+
+  private volatile String                   lastTokenHash; // NOSONAR
+
+  private volatile ApiUsageStatus           usageStatus;   // NOSONAR
+
+  @Autowired
+  private TwitterApiUsageStorage            twitterApiUsageStorage;
+
+  @Value("${io.meeds.gamification.twitter.usage.monthlyReadCap:0}")
+  private long                              monthlyReadCap;
+
+  /**
+   * @param endpoint called {@link TwitterEndpoint}
+   * @param bearerToken used bearer token
+   * @param readCount number of items read from the response, counted only
+   *          when the endpoint returns posts
+   */
+  public void record(TwitterEndpoint endpoint, String bearerToken, long readCount) {
+    if (StringUtils.isBlank(bearerToken)) {
+      return;
+    }
+    String tokenHash = hashToken(bearerToken);
+    lastTokenHash = tokenHash;
+    PendingUsage pendingUsage = pendingUsages.computeIfAbsent(new UsageKey(today(), endpoint, tokenHash),
+                                                              key -> new PendingUsage());
+    pendingUsage.requestCount.increment();
+    if (endpoint.isPostRead()) {
+      pendingUsage.readCount.add(readCount);
+    }
+  }
+
+  /**
+   * Adds the usage recorded in memory to the persisted ledger, then refreshes
+   * the usage status of the last used token.
+   */
+  @Scheduled(fixedDelayString = "${io.meeds.gamification.twitter.usage.flushDelayMillis:60000}")
+  public synchronized void flush() {
+    pendingUsages.forEach((key, pendingUsage) -> {
+      // Subtract the flushed counts only, to keep the ones recorded meanwhile
+      long requestCount = pendingUsage.requestCount.sum();
+      long readCount = pendingUsage.readCount.sum();
+      if (requestCount == 0 && readCount == 0) {
+        if (!key.day().equals(today())) {
+          pendingUsages.remove(key, pendingUsage);
+        }
+        return;
+      }
+      try {
+        twitterApiUsageStorage.addUsage(key.day(), key.endpoint(), key.tokenHash(), requestCount, readCount);
+        pendingUsage.requestCount.add(-requestCount);
+        pendingUsage.readCount.add(-readCount);
+      } catch (RuntimeException e) {
+        // Kept in memory to be added on next flush
+        LOG.warn("Error while saving Twitter API usage of endpoint {}", key.endpoint(), e);
+      }
+    });
+    if (lastTokenHash != null) {
+      try {
+        usageStatus = computeUsageStatus(lastTokenHash);
+      } catch (RuntimeException e) {
+        LOG.warn("Error while computing Twitter API usage status", e);
+      }
+    }
+  }
+
+  /**
+   * @param bearerToken bearer token
+   * @return the current month consumption of the designated token, including
+   *         the usage recorded in memory and not flushed yet
+   */
+  public synchronized ApiUsageStatus getUsageStatus(String bearerToken) {
+    return computeUsageStatus(hashToken(bearerToken));
+  }
+
+  /**
+   * @return the factor by which polling intervals have to be multiplied to
+   *         not exceed the monthly cap, 1 when not throttled
+   */
+  public double getThrottleFactor() {
+    ApiUsageStatus status = usageStatus;
+    return status == null ? 1 : status.getThrottleFactor();
+  }
+
+  /**
+   * @return true if the monthly cap of read items is reached with the last
+   *         used token
+   */
+  public boolean isCapReached() {
+    ApiUsageStatus status = usageStatus;
+    return status != null && status.isCapReached() && YearMonth.now(ZoneOffset.UTC).toString().equals(status.getMonth());
+  }
+
+  @PreDestroy
+  public void destroy() {
+    flush();
+  }
+
+  private ApiUsageStatus computeUsageStatus(String tokenHash) {
+    ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    YearMonth month = YearMonth.from(now);
+    LocalDate monthStart = month.atDay(1);
+    List<ApiUsage> usages = addPendingUsages(twitterApiUsageStorage.getUsages(tokenHash, monthStart), tokenHash, monthStart);
+    long requestCount = usages.stream().mapToLong(ApiUsage::getRequestCount).sum();
+    // Ignore reads recorded for other endpoints before they were excluded
+    long readCount = usages.stream()
+                           .filter(usage -> usage.getEndpoint().isPostRead())
+                           .mapToLong(ApiUsage::getReadCount)
+                           .sum();
+
+    // Extrapolate the average daily consumption of the month, counting at
+    // least one day to not overestimate it on the first hours of the month
+    double elapsedDays = (double) Duration.between(monthStart.atStartOfDay(ZoneOffset.UTC), now).toMillis() / DAY_MILLIS;
+    double remainingDays = Math.max(month.lengthOfMonth() - elapsedDays, 0);
+    double dailyReadCount = readCount / Math.max(elapsedDays, 1);
+    long forecastReadCount = Math.round(readCount + dailyReadCount * remainingDays);
+
+    double throttleFactor = 1;
+    boolean capReached = false;
+    if (monthlyReadCap > 0) {
+      capReached = readCount >= monthlyReadCap;
+      if (!capReached && forecastReadCount > monthlyReadCap) {
+        // Slow down the consumption to spread the remaining budget until the
+        // end of the month
+        throttleFactor = dailyReadCount * remainingDays / (monthlyReadCap - readCount);
+      }
+    }
+    return new ApiUsageStatus(month.toString(),
+                              monthlyReadCap > 0 ? monthlyReadCap : null,
+                              requestCount,
+                              readCount,
+                              forecastReadCount,
+                              Math.max(throttleFactor, 1),
+                              capReached,
+                              usages);
+  }
+
+  private List<ApiUsage> addPendingUsages(List<ApiUsage> persistedUsages, String tokenHash, LocalDate monthStart) {
+    Map<String, ApiUsage> usages = new LinkedHashMap<>();
+    persistedUsages.forEach(usage -> usages.put(usage.getDay() + usage.getEndpoint(),
+                                                new ApiUsage(usage.getDay(),
+                                                             usage.getEndpoint(),
+                                                             usage.getRequestCount(),
+                                                             usage.getReadCount())));
+    pendingUsages.forEach((key, pendingUsage) -> {
+      long requestCount = pendingUsage.requestCount.sum();
+      long readCount = pendingUsage.readCount.sum();
+      if (key.tokenHash().equals(tokenHash) && !key.day().isBefore(monthStart) && (requestCount > 0 || readCount > 0)) {
+        ApiUsage usage = usages.computeIfAbsent(key.day().toString() + key.endpoint(),
+                                                k -> new ApiUsage(key.day().toString(), key.endpoint(), 0, 0));
+        usage.setRequestCount(usage.getRequestCount() + requestCount);
+        usage.setReadCount(usage.getReadCount() + readCount);
+      }
+    });
+    return new ArrayList<>(usages.values());
+  }
+
+  private String hashToken(String bearerToken) {
+    // Avoid storing the bearer token itself
+    return tokenHashes.computeIfAbsent(bearerToken, token -> {
+      try {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-256 algorithm isn't available", e);
+      }
+    });
+  }
+
+  private LocalDate today() {
+    return LocalDate.now(ZoneOffset.UTC);
+  }
+
+  private record UsageKey(LocalDate day, TwitterEndpoint endpoint, String tokenHash) {
+  }
+
+  private static class PendingUsage {
+
+    private final LongAdder requestCount = new LongAdder();
+
+    private final LongAdder readCount    = new LongAdder();
+  }
+}
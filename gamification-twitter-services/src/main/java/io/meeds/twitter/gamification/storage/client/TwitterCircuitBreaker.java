@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.exception.TwitterCircuitOpenException;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+/**
+ * Stops calling Twitter API for a while once an endpoint keeps failing after
+ * retries, or once a bearer token has been rejected, so that callers fail fast
+ * instead of issuing a doomed call per watched item. When the open delay
+ * elapses, calls are let through again and a single new failure reopens the
+ * circuit.
+ */
+@Component
+public class TwitterCircuitBreaker {
+
+  private static final Log                             LOG             = ExoLogger.getLogger(TwitterCircuitBreaker.class);
+
+  private final Map<TwitterEndpoint, EndpointCircuit> endpointCircuits = new EnumMap<>(TwitterEndpoint.class);
+
+  private final Map<String, Long>                      rejectedTokens  = new ConcurrentHashMap<>();
+
+  @Value("${io.meeds.gamification.twitter.circuitBreaker.failureThreshold:5}")
+  private int                                          failureThreshold;
+
+  @Value("${io.meeds.gamification.twitter.circuitBreaker.openSeconds:300}")
+  private long                                         openSeconds;
+
+  @Value("${io.meeds.gamification.twitter.circuitBreaker.rejectedTokenSeconds:900}")
+  private long                                         rejectedTokenSeconds;
+
+  public TwitterCircuitBreaker() {
+    for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+      endpointCircuits.put(endpoint, new EndpointCircuit());
+    }
+  }
+
+  /**
+   * @param endpoint {@link TwitterEndpoint}
+   * @param bearerToken Twitter bearer token
+   * @throws TwitterCircuitOpenException when the endpoint is considered down
+   *           or the token was rejected
+   */
+  public void check(TwitterEndpoint endpoint, String bearerToken) throws TwitterCircuitOpenException {
+    long now = System.currentTimeMillis();
+    Long tokenOpenUntil = rejectedTokens.get(tokenKey(bearerToken));
+    if (tokenOpenUntil != null && tokenOpenUntil > now) {
+      throw new TwitterCircuitOpenException(null, tokenOpenUntil / 1000);
+    }
+    EndpointCircuit circuit = endpointCircuits.get(endpoint);
+    synchronized (circuit) {
+      if (circuit.openUntil > now) {
+        throw new TwitterCircuitOpenException(endpoint, circuit.openUntil / 1000);
+      }
+    }
+  }
+
+  /**
+   * @param endpoint {@link TwitterEndpoint}
+   * @param bearerToken Twitter bearer token
+   * @return true if calls can be issued on the endpoint using the token
+   */
+  public boolean isClosed(TwitterEndpoint endpoint, String bearerToken) {
+    try {
+      check(endpoint, bearerToken);
+      return true;
+    } catch (TwitterCircuitOpenException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Closes the endpoint and token circuits after a successful call
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   * @param bearerToken Twitter bearer token
+   */
+  public void recordSuccess(TwitterEndpoint endpoint, String bearerToken) {
+    rejectedTokens.remove(tokenKey(bearerToken));
+    EndpointCircuit circuit = endpointCircuits.get(endpoint);
+    synchronized (circuit) {
+      circuit.failures = 0;
+      circuit.openUntil = 0;
+    }
+  }
+
+  /**
+   * Records a call failing after all its retries, opening the endpoint circuit
+   * once the consecutive failures threshold is reached
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   */
+  public void recordFailure(TwitterEndpoint endpoint) {
+    EndpointCircuit circuit = endpointCircuits.get(endpoint);
+    synchronized (circuit) {
+      circuit.failures++;
+      if (circuit.failures >= Math.max(failureThreshold, 1)) {
+        circuit.openUntil = System.currentTimeMillis() + openSeconds * 1000;
+        // Let one more failure reopen the circuit once the delay elapsed
+        circuit.failures = Math.max(failureThreshold, 1) - 1;
+        LOG.warn("Twitter endpoint {} keeps failing, stop calling it for {} seconds", endpoint, openSeconds);
+      }
+    }
+  }
+
+  /**
+   * Opens the token circuit when Twitter rejected the bearer token
+   *
+   * @param bearerToken Twitter bearer token
+   */
+  public void rejectToken(String bearerToken) {
+    rejectedTokens.put(tokenKey(bearerToken), System.currentTimeMillis() + rejectedTokenSeconds * 1000);
+    LOG.warn("Twitter bearer token was rejected, stop using it for {} seconds", rejectedTokenSeconds);
+  }
+
+  private String tokenKey(String bearerToken) {
+    return bearerToken == null ? "" : DigestUtils.sha256Hex(bearerToken);
+  }
+
+  private static class EndpointCircuit {
+
+    private int  failures;
+
+    private long openUntil;
+  }
+}
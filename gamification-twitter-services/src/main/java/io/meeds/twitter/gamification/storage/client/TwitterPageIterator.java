@@ -0,0 +1,99 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.NoSuchElementException;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.meeds.twitter.gamification.exception.TwitterConnectionException;
+import io.meeds.twitter.gamification.storage.client.model.TwitterResponse;
+
+/**
+ * Pull-based iterator over the pages of a paginated Twitter API v2 response.
+ * Each page is retrieved only when requested, following the
+ * meta.next_token of the previous page, and within a maximum number of pages.
+ *
+ * @param <T> page data type
+ */
+public class TwitterPageIterator<T> {
+
+  private final PageLoader<T> pageLoader;
+
+  private final int           maxPages;
+
+  private int                 pageCount;
+
+  private String              nextToken;
+
+  public TwitterPageIterator(PageLoader<T> pageLoader, int maxPages) {
+    this.pageLoader = pageLoader;
+    this.maxPages = Math.max(maxPages, 1);
+  }
+
+  /**
+   * @return true if a next page is available and the pages budget isn't
+   *         consumed yet
+   */
+  public boolean hasNext() {
+    return pageCount == 0 || (nextToken != null && pageCount < maxPages);
+  }
+
+  /**
+   * Retrieves the next page
+   *
+   * @return {@link TwitterResponse} of the next page, or null if not found
+   * @throws TwitterConnectionException when the page can't be retrieved
+   */
+  public TwitterResponse<T> next() throws TwitterConnectionException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    TwitterResponse<T> page = pageLoader.load(nextToken);
+    pageCount++;
+    nextToken = page == null || page.getMeta() == null ? null : StringUtils.trimToNull(page.getMeta().getNextToken());
+    return page;
+  }
+
+  /**
+   * @return true when the iteration was stopped by the pages budget while
+   *         Twitter still had pages to return
+   */
+  public boolean isTruncated() {
+    return nextToken != null && pageCount >= maxPages;
+  }
+
+  /**
+   * @return number of retrieved pages
+   */
+  public int getPageCount() {
+    return pageCount;
+  }
+
+  @FunctionalInterface
+  public interface PageLoader<T> {
+
+    /**
+     * @param paginationToken next_token of the previous page, null for the
+     *          first page
+     * @return {@link TwitterResponse} of the page
+     * @throws TwitterConnectionException when the page can't be retrieved
+     */
+    TwitterResponse<T> load(String paginationToken) throws TwitterConnectionException;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import org.exoplatform.services.log.ExoLogger;
+import org.exoplatform.services.log.Log;
+
+import io.meeds.twitter.gamification.exception.TwitterRateLimitException;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+/**
+ * Keeps track of Twitter API rate limits per endpoint, using the
+ * x-rate-limit-* headers returned with each response, and holds the calls that
+ * would exceed the remaining budget of an endpoint until its window is reset.
+ */
+@Component
+public class TwitterRateLimitGovernor {
+
+  private static final Log                         LOG                   = ExoLogger.getLogger(TwitterRateLimitGovernor.class);
+
+  public static final String                       RATE_LIMIT_HEADER     = "x-rate-limit-limit";
+
+  public static final String                       RATE_LIMIT_REMAINING  = "x-rate-limit-remaining";
+
+  public static final String                       RATE_LIMIT_RESET      = "x-rate-limit-reset";
+
+  private static final long                        DEFAULT_WINDOW_MILLIS = 15 * 60 * 1000L;
+
+  private final Map<TwitterEndpoint, EndpointQuota> quotas               = new EnumMap<>(TwitterEndpoint.class);
+
+  @Value("${io.meeds.gamification.twitter.rateLimit.maxWaitSeconds:60}")
+  private long                                     maxWaitSeconds;
+
+  public TwitterRateLimitGovernor() {
+    for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+      quotas.put(endpoint, new EndpointQuota());
+    }
+  }
+
+  /**
+   * Reserves one call on the designated endpoint. When the endpoint budget is
+   * exhausted, the caller is held until the window reset if it happens within
+   * the configured maximum wait time, else the call is rejected.
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   * @throws TwitterRateLimitException when the endpoint budget is exhausted
+   *           and the call can't be held until the reset time
+   */
+  public void acquire(TwitterEndpoint endpoint) throws TwitterRateLimitException {
+    EndpointQuota quota = quotas.get(endpoint);
+    while (true) { // NOSONAR
+      long waitMillis;
+      synchronized (quota) {
+        long now = System.currentTimeMillis();
+        if (quota.resetMillis <= now) {
+          // Window elapsed: the budget is unknown until next response headers
+          quota.remaining = -1;
+        }
+        if (quota.remaining != 0) {
+          if (quota.remaining > 0) {
+            quota.remaining--;
+          }
+          return;
+        }
+        waitMillis = quota.resetMillis - now;
+        if (waitMillis > maxWaitSeconds * 1000) {
+          throw new TwitterRateLimitException(endpoint, quota.resetMillis / 1000);
+        }
+      }
+      LOG.debug("Twitter endpoint {} rate limit reached, hold call for {}ms until window reset", endpoint, waitMillis);
+      try {
+        Thread.sleep(waitMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TwitterRateLimitException(endpoint, quota.resetMillis / 1000);
+      }
+    }
+  }
+
+  /**
+   * Records the rate limit state of an endpoint as returned by Twitter in
+   * response headers. Within the same window, the lowest remaining budget is
+   * kept, since responses of concurrent calls may be received after calls
+   * reserved locally since then. Headers of a previous window are ignored.
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   * @param limit x-rate-limit-limit header value
+   * @param remaining x-rate-limit-remaining header value
+   * @param reset x-rate-limit-reset header value, epoch time in seconds
+   */
+  public void update(TwitterEndpoint endpoint, String limit, String remaining, String reset) {
+    if (!StringUtils.isNumeric(remaining) || !StringUtils.isNumeric(reset)) {
+      return;
+    }
+    long remainingCount = Long.parseLong(remaining);
+    long resetMillis = Long.parseLong(reset) * 1000;
+    EndpointQuota quota = quotas.get(endpoint);
+    synchronized (quota) {
+      if (resetMillis < quota.resetMillis) {
+        return;
+      }
+      if (StringUtils.isNumeric(limit)) {
+        quota.limit = Long.parseLong(limit);
+      }
+      if (resetMillis == quota.resetMillis && quota.remaining >= 0) {
+        quota.remaining = Math.min(quota.remaining, remainingCount);
+      } else {
+        quota.remaining = remainingCount;
+      }
+      quota.resetMillis = resetMillis;
+    }
+  }
+
+  /**
+   * Marks an endpoint budget as exhausted, typically when Twitter answered
+   * with a 429 status.
+   *
+   * @param endpoint {@link TwitterEndpoint}
+   * @param reset x-rate-limit-reset header value, epoch time in seconds, if
+   *          available
+   * @return epoch time, in seconds, when the endpoint window is reset
+   */
+  public long exhaust(TwitterEndpoint endpoint, String reset) {
+    EndpointQuota quota = quotas.get(endpoint);
+    synchronized (quota) {
+      quota.remaining = 0;
+      quota.resetMillis = StringUtils.isNumeric(reset) ? Long.parseLong(reset) * 1000
+                                                       : System.currentTimeMillis() + DEFAULT_WINDOW_MILLIS;
+      return quota.resetMillis / 1000;
+    }
+  }
+
+  /**
+   * @param endpoint {@link TwitterEndpoint}
+   * @return the current rate limit state of the endpoint
+   */
+  public RateLimitStatus getRateLimitStatus(TwitterEndpoint endpoint) {
+    EndpointQuota quota = quotas.get(endpoint);
+    synchronized (quota) {
+      boolean windowActive = quota.resetMillis > System.currentTimeMillis();
+      return new RateLimitStatus(endpoint,
+                                 quota.limit > 0 ? quota.limit : null,
+                                 windowActive && quota.remaining >= 0 ? quota.remaining : null,
+                                 windowActive ? quota.resetMillis / 1000 : null,
+                                 windowActive && quota.remaining == 0);
+    }
+  }
+
+  /**
+   * @return the current rate limit state of all consumed endpoints
+   */
+  public List<RateLimitStatus> getRateLimitStatuses() {
+    List<RateLimitStatus> statuses = new ArrayList<>();
+    for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+      statuses.add(getRateLimitStatus(endpoint));
+    }
+    return statuses;
+  }
+
+  private static class EndpointQuota {
+
+    private long limit;
+
+    private long remaining = -1;
+
+    private long resetMillis;
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.meeds.twitter.gamification.exception.TwitterConnectionException;
+
+/**
+ * Coalesces identical concurrent Twitter API requests: callers requesting the
+ * same URI with the same bearer token while a request is in flight share its
+ * result instead of issuing their own call, and the result is reused for a
+ * very short time once retrieved, then evicted. Failures are shared with
+ * waiting callers only, never reused.
+ */
+@Component
+public class TwitterRequestCoalescer {
+
+  private final Map<RequestKey, RequestResult> requests = new ConcurrentHashMap<>();
+
+  @Value("${io.meeds.gamification.twitter.coalescing.ttlMillis:2000}")
+  private long                                 ttlMillis;
+
+  /**
+   * @param <T> result type
+   * @param uri requested URI
+   * @param bearerToken Twitter bearer token
+   * @param loader loads the result when no identical request is in flight or
+   *          recently completed
+   * @return the result of the request, shared with identical concurrent
+   *         requests, thus it must not be modified
+   * @throws TwitterConnectionException when the shared request failed
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String uri, String bearerToken, RequestLoader<T> loader) throws TwitterConnectionException {
+    RequestKey key = new RequestKey(uri, bearerToken);
+    RequestResult ownResult = new RequestResult();
+    RequestResult result = requests.compute(key,
+                                            (k, existing) -> existing != null && !existing.isExpired(ttlMillis) ? existing
+                                                                                                                : ownResult);
+    if (result != ownResult) {
+      return (T) result.join();
+    }
+    try {
+      T value = loader.load();
+      ownResult.complete(value);
+      if (ttlMillis > 0) {
+        CompletableFuture.runAsync(() -> requests.remove(key, ownResult),
+                                   CompletableFuture.delayedExecutor(ttlMillis, TimeUnit.MILLISECONDS));
+      } else {
+        requests.remove(key, ownResult);
+      }
+      return value;
+    } catch (TwitterConnectionException | RuntimeException e) {
+      requests.remove(key, ownResult);
+      ownResult.future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  @FunctionalInterface
+  public interface RequestLoader<T> {
+    T load() throws TwitterConnectionException;
+  }
+
+  private record RequestKey(String uri, String bearerToken) {
+  }
+
+  private static class RequestResult {
+
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+    private volatile long                   completedAt;
+
+    private void complete(Object value) {
+      completedAt = System.currentTimeMillis();
+      future.complete(value);
+    }
+
+    private boolean isExpired(long ttlMillis) {
+      // In flight requests never expire
+      return future.isDone() && (future.isCompletedExceptionally() || completedAt + ttlMillis < System.currentTimeMillis());
+    }
+
+    private Object join() throws TwitterConnectionException {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TwitterConnectionException("twitter.requestInterrupted", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof TwitterConnectionException connectionException) {
+          throw connectionException;
+        } else if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        } else {
+          throw new IllegalStateException(e.getCause());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.storage.client.model.TwitterApiError;
+import io.meeds.twitter.gamification.storage.client.model.TwitterIncludes;
+import io.meeds.twitter.gamification.storage.client.model.TwitterMeta;
+import io.meeds.twitter.gamification.storage.client.model.TwitterRateLimitStatus;
+import io.meeds.twitter.gamification.storage.client.model.TwitterResponse;
+import io.meeds.twitter.gamification.storage.client.model.TwitterTweet;
+import io.meeds.twitter.gamification.storage.client.model.TwitterUser;
+import io.meeds.twitter.gamification.utils.Utils;
+
+/**
+ * Streaming parsers of Twitter API responses. The response envelope is walked
+ * token by token while its elements are bound to the typed
+ * {@link io.meeds.twitter.gamification.storage.client.model} DTOs using shared
+ * {@link ObjectReader}s, which are immutable and thread safe once built.
+ */
+public class TwitterResponseParsers {
+
+  public static final String        DATA                     = "data";
+
+  public static final String        INCLUDES                 = "includes";
+
+  public static final String        META                     = "meta";
+
+  public static final String        ERRORS                   = "errors";
+
+  private static final ObjectMapper OBJECT_MAPPER            =
+                                                  JsonMapper.builder()
+                                                            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                                                            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                                                            .build();
+
+  private static final ObjectReader USER_RESPONSE_READER     =
+                                                         OBJECT_MAPPER.readerFor(new TypeReference<TwitterResponse<TwitterUser>>() {
+                                                         });
+
+  private static final ObjectReader USER_READER              = OBJECT_MAPPER.readerFor(TwitterUser.class);
+
+  private static final ObjectReader TWEET_READER             = OBJECT_MAPPER.readerFor(TwitterTweet.class);
+
+  private static final ObjectReader INCLUDES_READER          = OBJECT_MAPPER.readerFor(TwitterIncludes.class);
+
+  private static final ObjectReader META_READER              = OBJECT_MAPPER.readerFor(TwitterMeta.class);
+
+  private static final ObjectReader ERRORS_READER            =
+                                                  OBJECT_MAPPER.readerFor(new TypeReference<List<TwitterApiError>>() {
+                                                  });
+
+  private static final ObjectReader RATE_LIMIT_STATUS_READER = OBJECT_MAPPER.readerFor(TwitterRateLimitStatus.class);
+
+  private TwitterResponseParsers() {
+    // Class with static methods
+  }
+
+  /**
+   * @param inputStream response body {@link InputStream}
+   * @return a {@link JsonParser} reading the response body incrementally
+   * @throws IOException when the parser can't be created
+   */
+  public static JsonParser createParser(InputStream inputStream) throws IOException {
+    return OBJECT_MAPPER.createParser(inputStream);
+  }
+
+  /**
+   * Parses a single user lookup response.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @return {@link TwitterResponse} with the {@link TwitterUser} as data, or
+   *         only errors when the user wasn't found
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterResponse<TwitterUser> parseUser(JsonParser jsonParser) throws IOException {
+    return USER_RESPONSE_READER.readValue(jsonParser);
+  }
+
+  /**
+   * Parses a multiple users lookup response.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @return {@link TwitterResponse} with the {@link List} of found
+   *         {@link TwitterUser} as data, and errors for the not found ones
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterResponse<List<TwitterUser>> parseUsers(JsonParser jsonParser) throws IOException {
+    List<TwitterUser> users = new ArrayList<>();
+    TwitterResponse<List<TwitterUser>> response = parseResponse(jsonParser, USER_READER, (TwitterUser user) -> users.add(user));
+    response.setData(Collections.unmodifiableList(users));
+    return response;
+  }
+
+  /**
+   * Parses a multiple tweets lookup response.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @return {@link TwitterResponse} with the {@link List} of found
+   *         {@link TwitterTweet} as data, and errors for the not found ones
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterResponse<List<TwitterTweet>> parseTweets(JsonParser jsonParser) throws IOException {
+    List<TwitterTweet> tweets = new ArrayList<>();
+    TwitterResponse<List<TwitterTweet>> response = parseResponse(jsonParser, TWEET_READER, (TwitterTweet tweet) -> tweets.add(tweet));
+    response.setData(Collections.unmodifiableList(tweets));
+    return response;
+  }
+
+  /**
+   * Parses an application rate limit status response.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @return {@link TwitterRateLimitStatus}
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterRateLimitStatus parseRateLimitStatus(JsonParser jsonParser) throws IOException {
+    return RATE_LIMIT_STATUS_READER.readValue(jsonParser);
+  }
+
+  /**
+   * Parses a users list response, as returned by liking_users and retweeted_by
+   * endpoints.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @return {@link TwitterResponse} with the usernames by user Id as data, in
+   *         the same order than returned by Twitter
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterResponse<Map<Long, String>> parseReactors(JsonParser jsonParser) throws IOException {
+    Map<Long, String> reactors = new LinkedHashMap<>();
+    TwitterResponse<Map<Long, String>> response = parseResponse(jsonParser, USER_READER, (TwitterUser user) -> {
+      if (user.getId() > 0) {
+        reactors.put(user.getId(), user.getUsername());
+      }
+    });
+    // Responses may be shared by concurrent callers
+    response.setData(Collections.unmodifiableMap(reactors));
+    return response;
+  }
+
+  /**
+   * Parses a mentions timeline response into mention triggers. Replies which
+   * only mention the account by default, without explicitly mentioning it in
+   * the text, are ignored.
+   *
+   * @param jsonParser {@link JsonParser} positioned before response root
+   * @param twitterAccount mentioned {@link TwitterAccount}
+   * @return {@link TwitterResponse} with the {@link List} of mention
+   *         {@link TwitterTrigger} as data, in the same order than returned by
+   *         Twitter, newest first
+   * @throws IOException when the response can't be parsed
+   */
+  public static TwitterResponse<List<TwitterTrigger>> parseMentions(JsonParser jsonParser,
+                                                                   TwitterAccount twitterAccount) throws IOException {
+    Pattern mentionPattern = Pattern.compile("@" + Pattern.quote(twitterAccount.getIdentifier()));
+    List<TwitterTweet> mentions = new ArrayList<>();
+    TwitterResponse<List<TwitterTrigger>> response = parseResponse(jsonParser, TWEET_READER, (TwitterTweet tweet) -> {
+      if (tweet.getId() == tweet.getConversationId() || countMentions(mentionPattern, tweet.getText()) > 1) {
+        // Default reply mentions are skipped
+        mentions.add(tweet);
+      }
+    });
+    Map<Long, String> usernames = new HashMap<>();
+    if (response.getIncludes() != null && response.getIncludes().getUsers() != null) {
+      response.getIncludes().getUsers().forEach(user -> usernames.put(user.getId(), user.getUsername()));
+    }
+    List<TwitterTrigger> twitterTriggers = new ArrayList<>(mentions.size());
+    for (TwitterTweet mention : mentions) {
+      twitterTriggers.add(new TwitterTrigger(Utils.MENTION_ACCOUNT_EVENT_NAME,
+                                             usernames.get(mention.getAuthorId()),
+                                             mention.getId(),
+                                             "tweet",
+                                             twitterAccount.getRemoteId()));
+    }
+    response.setData(Collections.unmodifiableList(twitterTriggers));
+    return response;
+  }
+
+  private static <E, T> TwitterResponse<T> parseResponse(JsonParser jsonParser,
+                                                         ObjectReader dataReader,
+                                                         Consumer<E> dataConsumer) throws IOException {
+    TwitterResponse<T> response = new TwitterResponse<>();
+    if (jsonParser.nextToken() != JsonToken.START_OBJECT) {
+      return response;
+    }
+    while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = jsonParser.currentName();
+      JsonToken token = jsonParser.nextToken();
+      if (token == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      switch (fieldName) {
+      case DATA -> {
+        if (token == JsonToken.START_ARRAY) {
+          while (jsonParser.nextToken() == JsonToken.START_OBJECT) {
+            dataConsumer.accept(dataReader.readValue(jsonParser));
+            response.setDataCount(response.getDataCount() + 1);
+          }
+        } else if (token == JsonToken.START_OBJECT) {
+          dataConsumer.accept(dataReader.readValue(jsonParser));
+          response.setDataCount(1);
+        } else {
+          jsonParser.skipChildren();
+        }
+      }
+      case INCLUDES -> response.setIncludes(INCLUDES_READER.readValue(jsonParser));
+      case META -> response.setMeta(META_READER.readValue(jsonParser));
+      case ERRORS -> response.setErrors(ERRORS_READER.readValue(jsonParser));
+      default -> jsonParser.skipChildren();
+      }
+    }
+    return response;
+  }
+
+  private static int countMentions(Pattern mentionPattern, String text) {
+    if (text == null) {
+      return 0;
+    }
+    Matcher matcher = mentionPattern.matcher(text);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+}
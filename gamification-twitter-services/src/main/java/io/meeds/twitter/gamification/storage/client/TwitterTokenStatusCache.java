@@ -0,0 +1,110 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+/**
+ * Keeps the status of bearer tokens up to date using the outcome of regular
+ * Twitter API calls and the rate limit headers of the user by username lookup,
+ * which is the probed rate limit resource, so that the status doesn't have to
+ * be requested remotely each time it is displayed. A cached status is
+ * considered stale, and thus has to be probed remotely, once the configured
+ * delay elapsed without traffic or once the user by username rate limit window
+ * is reset.
+ */
+@Component
+public class TwitterTokenStatusCache {
+
+  private final Map<String, CachedTokenStatus> tokenStatuses = new ConcurrentHashMap<>();
+
+  @Value("${io.meeds.gamification.twitter.tokenStatus.ttlSeconds:300}")
+  private long                                 ttlSeconds;
+
+  /**
+   * @param bearerToken Twitter bearer token
+   * @return the cached {@link TokenStatus}, or null if unknown or stale
+   */
+  public TokenStatus get(String bearerToken) {
+    CachedTokenStatus cachedTokenStatus = tokenStatuses.get(tokenKey(bearerToken));
+    long now = System.currentTimeMillis();
+    if (cachedTokenStatus == null || cachedTokenStatus.updatedAt() + ttlSeconds * 1000 < now
+        || (cachedTokenStatus.isValid() && cachedTokenStatus.reset() != null && cachedTokenStatus.reset() * 1000 < now)) {
+      return null;
+    }
+    return new TokenStatus(cachedTokenStatus.isValid(), cachedTokenStatus.remaining(), cachedTokenStatus.reset());
+  }
+
+  /**
+   * Caches a remotely probed token status
+   *
+   * @param bearerToken Twitter bearer token
+   * @param tokenStatus {@link TokenStatus}
+   */
+  public void put(String bearerToken, TokenStatus tokenStatus) {
+    tokenStatuses.put(tokenKey(bearerToken),
+                      new CachedTokenStatus(Boolean.TRUE.equals(tokenStatus.getIsValid()),
+                                            tokenStatus.getRemaining(),
+                                            tokenStatus.getReset(),
+                                            System.currentTimeMillis()));
+  }
+
+  /**
+   * Updates the token status from the outcome of a Twitter API call
+   *
+   * @param endpoint called {@link TwitterEndpoint}
+   * @param bearerToken used Twitter bearer token
+   * @param statusCode response status code
+   * @param remaining x-rate-limit-remaining header value
+   * @param reset x-rate-limit-reset header value, epoch time in seconds
+   */
+  public void update(TwitterEndpoint endpoint, String bearerToken, int statusCode, String remaining, String reset) {
+    long now = System.currentTimeMillis();
+    if (statusCode == 401 || statusCode == 403) {
+      tokenStatuses.put(tokenKey(bearerToken), new CachedTokenStatus(false, null, null, now));
+    } else if (statusCode >= 200 && statusCode < 300) {
+      tokenStatuses.compute(tokenKey(bearerToken), (key, cachedTokenStatus) -> {
+        // Other users endpoints have their own rate limit windows
+        if (endpoint == TwitterEndpoint.USER_BY_USERNAME && StringUtils.isNumeric(remaining) && StringUtils.isNumeric(reset)) {
+          return new CachedTokenStatus(true, Long.parseLong(remaining), Long.parseLong(reset), now);
+        } else if (cachedTokenStatus != null && cachedTokenStatus.isValid()) {
+          return new CachedTokenStatus(true, cachedTokenStatus.remaining(), cachedTokenStatus.reset(), now);
+        } else {
+          // Token accepted again, its budget has to be probed
+          return null;
+        }
+      });
+    }
+  }
+
+  private String tokenKey(String bearerToken) {
+    return bearerToken == null ? "" : DigestUtils.sha256Hex(bearerToken);
+  }
+
+  private record CachedTokenStatus(boolean isValid, Long remaining, Long reset, long updatedAt) {
+  }
+}
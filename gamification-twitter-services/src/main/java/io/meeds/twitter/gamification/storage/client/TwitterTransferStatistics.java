@@ -0,0 +1,79 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import io.meeds.twitter.gamification.model.TransferStatistics;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+/**
+ * Accumulates, per endpoint, the number of bytes of Twitter API responses
+ * transferred on the wire and the number of bytes once decoded, to monitor
+ * the bandwidth saved by compressed transfers.
+ */
+@Component
+public class TwitterTransferStatistics {
+
+  private final Map<TwitterEndpoint, EndpointTransfer> transfers = new EnumMap<>(TwitterEndpoint.class);
+
+  public TwitterTransferStatistics() {
+    for (TwitterEndpoint endpoint : TwitterEndpoint.values()) {
+      transfers.put(endpoint, new EndpointTransfer());
+    }
+  }
+
+  /**
+   * @param endpoint {@link TwitterEndpoint}
+   * @param wireBytes bytes read from the connection
+   * @param decodedBytes bytes read once the content decoded
+   */
+  public void record(TwitterEndpoint endpoint, long wireBytes, long decodedBytes) {
+    EndpointTransfer transfer = transfers.get(endpoint);
+    transfer.responseCount.increment();
+    transfer.wireBytes.add(wireBytes);
+    transfer.decodedBytes.add(decodedBytes);
+  }
+
+  /**
+   * @return the transfer statistics of all consumed endpoints
+   */
+  public List<TransferStatistics> getTransferStatistics() {
+    List<TransferStatistics> statistics = new ArrayList<>();
+    transfers.forEach((endpoint, transfer) -> statistics.add(new TransferStatistics(endpoint,
+                                                                                    transfer.responseCount.sum(),
+                                                                                    transfer.wireBytes.sum(),
+                                                                                    transfer.decodedBytes.sum())));
+    return statistics;
+  }
+
+  private static class EndpointTransfer {
+
+    private final LongAdder responseCount = new LongAdder();
+
+    private final LongAdder wireBytes     = new LongAdder();
+
+    private final LongAdder decodedBytes  = new LongAdder();
+  }
+}
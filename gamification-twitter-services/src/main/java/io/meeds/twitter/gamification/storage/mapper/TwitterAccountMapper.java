@@ -83,7 +83,12 @@ public class TwitterAccountMapper {
                               twitterAccountEntity.getRefreshDate() != null ? Utils.toSimpleDateFormat(twitterAccountEntity.getRefreshDate())
                                                                             : null,
                               twitterAccountEntity.getLastMentionTweetId() != null ? twitterAccountEntity.getLastMentionTweetId()
-                                                                                   : 0);
+                                                                                   : 0,
+                              twitterAccountEntity.getPollInterval(),
+                              twitterAccountEntity.getNextPollDate() != null ? twitterAccountEntity.getNextPollDate().getTime()
+                                                                             : null,
+                              twitterAccountEntity.getMentionGapSinceId(),
+                              twitterAccountEntity.getMentionGapUntilId());
   }
 
 }
@@ -18,10 +18,13 @@
  */
 package io.meeds.twitter.gamification.storage.mapper;
 
+import io.meeds.twitter.gamification.dao.TwitterTweetListing;
 import io.meeds.twitter.gamification.entity.TwitterTweetEntity;
 import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.utils.ReactorIdsCodec;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 
 public class TwitterTweetMapper {
 
@@ -47,6 +50,10 @@ public class TwitterTweetMapper {
     if (CollectionUtils.isNotEmpty(tweet.getRetweeters())) {
       twitterTweetEntity.setRetweeters(tweet.getRetweeters());
     }
+    twitterTweetEntity.setLikerIds(ReactorIdsCodec.encode(tweet.getLikerIds()));
+    twitterTweetEntity.setRetweeterIds(ReactorIdsCodec.encode(tweet.getRetweeterIds()));
+    twitterTweetEntity.setLikeCount(tweet.getLikeCount());
+    twitterTweetEntity.setRetweetCount(tweet.getRetweetCount());
     return twitterTweetEntity;
   }
 
@@ -54,10 +61,26 @@ public class TwitterTweetMapper {
     if (twitterTweetEntity == null) {
       return null;
     }
+    // Reactors stored by username are only loaded when needed
     return new Tweet(twitterTweetEntity.getId(),
                      twitterTweetEntity.getTweetLink(),
-                     twitterTweetEntity.getLikers(),
-                     twitterTweetEntity.getRetweeters());
+                     Hibernate.isInitialized(twitterTweetEntity.getLikers()) ? twitterTweetEntity.getLikers() : null,
+                     Hibernate.isInitialized(twitterTweetEntity.getRetweeters()) ? twitterTweetEntity.getRetweeters() : null,
+                     twitterTweetEntity.getLikeCount(),
+                     twitterTweetEntity.getRetweetCount(),
+                     twitterTweetEntity.getPollInterval(),
+                     twitterTweetEntity.getNextPollDate() != null ? twitterTweetEntity.getNextPollDate().getTime() : null,
+                     ReactorIdsCodec.decode(twitterTweetEntity.getLikerIds()),
+                     ReactorIdsCodec.decode(twitterTweetEntity.getRetweeterIds()));
+  }
+
+  public static Tweet fromListing(TwitterTweetListing twitterTweetListing) {
+    Tweet tweet = new Tweet();
+    tweet.setTweetId(twitterTweetListing.getId());
+    tweet.setTweetLink(twitterTweetListing.getTweetLink());
+    tweet.setLikeCount(twitterTweetListing.getLikeCount());
+    tweet.setRetweetCount(twitterTweetListing.getRetweetCount());
+    return tweet;
   }
 
 }
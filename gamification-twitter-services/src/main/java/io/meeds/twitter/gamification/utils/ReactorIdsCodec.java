@@ -0,0 +1,116 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodes the sorted numeric ids of a tweet reactors into a blob: the gaps
+ * between consecutive ids are written as variable length integers, then
+ * deflated. Twitter user ids are sparse, time based snowflake ids for accounts
+ * created since late 2013 and sequential ids for older ones, so that each id
+ * costs about 5 bytes once encoded, about 500 KB for 100k reactors.
+ */
+public final class ReactorIdsCodec {
+
+  private static final byte   FORMAT_VERSION = 1;
+
+  private static final long[] NO_IDS         = new long[0];
+
+  private ReactorIdsCodec() {
+    // Class with static methods
+  }
+
+  /**
+   * @param ids reactor ids, sorted in ascending order
+   * @return encoded ids, null when there is no id
+   */
+  public static byte[] encode(long[] ids) {
+    if (ids == null || ids.length == 0) {
+      return null; // NOSONAR
+    }
+    ByteArrayOutputStream blob = new ByteArrayOutputStream(ids.length * 2 + 16);
+    blob.write(FORMAT_VERSION);
+    try (OutputStream outputStream = new DeflaterOutputStream(blob)) {
+      writeVarLong(outputStream, ids.length);
+      long previousId = 0;
+      for (long id : ids) {
+        writeVarLong(outputStream, id - previousId);
+        previousId = id;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return blob.toByteArray();
+  }
+
+  /**
+   * @param blob ids encoded using {@link #encode(long[])}
+   * @return reactor ids, sorted in ascending order
+   */
+  public static long[] decode(byte[] blob) {
+    if (blob == null || blob.length == 0) {
+      return NO_IDS;
+    }
+    if (blob[0] != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported reactor ids format " + blob[0]);
+    }
+    try (InputStream inputStream = new InflaterInputStream(new ByteArrayInputStream(blob, 1, blob.length - 1))) {
+      long[] ids = new long[(int) readVarLong(inputStream)];
+      long id = 0;
+      for (int i = 0; i < ids.length; i++) {
+        id += readVarLong(inputStream);
+        ids[i] = id;
+      }
+      return ids;
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Corrupted reactor ids", e);
+    }
+  }
+
+  private static void writeVarLong(OutputStream outputStream, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      outputStream.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    outputStream.write((int) value);
+  }
+
+  private static long readVarLong(InputStream inputStream) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = inputStream.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+}
@@ -39,13 +39,14 @@ public class Utils {
 
   public static final String TWEET_LINK                 = "tweetLink";
 
+  private static final Pattern TWEET_ID_PATTERN         = Pattern.compile("/status/(\\d+)");
+
   private Utils() {
     // Private constructor for Utils class
   }
 
   public static String extractTweetId(String tweetUrl) {
-    Pattern pattern = Pattern.compile("/status/(\\d+)");
-    Matcher matcher = pattern.matcher(tweetUrl);
+    Matcher matcher = TWEET_ID_PATTERN.matcher(tweetUrl);
     if (matcher.find()) {
       return matcher.group(1);
     } else {
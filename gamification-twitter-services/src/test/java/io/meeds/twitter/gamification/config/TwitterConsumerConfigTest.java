@@ -0,0 +1,43 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(classes = { TwitterConsumerConfig.class, }, properties = "io.meeds.gamification.twitter.consumer.executorType=virtual")
+class TwitterConsumerConfigTest {
+
+  @Autowired
+  @Qualifier(TwitterConsumerConfig.TWITTER_CONSUMER_EXECUTOR)
+  private ExecutorService twitterConsumerExecutor;
+
+  @Test
+  void testVirtualThreadExecutor() {
+    Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, twitterConsumerExecutor).join();
+    assertTrue(thread.isVirtual());
+    assertTrue(thread.getName().startsWith("twitter-consumer-virtual-"));
+  }
+}
@@ -78,4 +78,29 @@ class RuleUpdateTwitterListenerTest {
     ruleUpdateTwitterListener.onEvent(event);
     verify(twitterAccountService, times(1)).addTweetToWatch("tweetLink");
   }
+
+  @Test
+  void updateWatchedTweets() {
+    EventDTO eventDTO = new EventDTO();
+    Map<String, String> properties = new HashMap<>();
+    properties.put(Utils.TWEET_LINK, "tweetLink");
+    eventDTO.setProperties(properties);
+    when(rule.getEvent()).thenReturn(eventDTO);
+    when(ruleService.getRules(any(RuleFilter.class), anyInt(), anyInt())).thenReturn(List.of(rule));
+    Tweet watchedTweet = new Tweet();
+    watchedTweet.setTweetId(1L);
+    watchedTweet.setTweetLink("tweetLink");
+    Tweet removedTweet = new Tweet();
+    removedTweet.setTweetId(2L);
+    removedTweet.setTweetLink("removedTweetLink");
+    when(twitterAccountService.getTweets()).thenReturn(List.of(watchedTweet, removedTweet));
+    when(twitterAccountService.getTwitterBearerToken()).thenReturn("bearerToken");
+
+    ruleUpdateTwitterListener.onEvent(event);
+
+    verify(twitterAccountService, never()).addTweetToWatch(anyString());
+    verify(twitterAccountService, never()).getTweetByLink(anyString());
+    verify(twitterAccountService, times(1)).deleteTweetById(2L);
+    verify(twitterAccountService, never()).deleteTweetById(1L);
+  }
 }
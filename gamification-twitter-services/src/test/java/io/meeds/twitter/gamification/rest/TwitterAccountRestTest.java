@@ -19,13 +19,20 @@
 package io.meeds.twitter.gamification.rest;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
+import io.meeds.twitter.gamification.model.TokenStatus;
 import io.meeds.twitter.gamification.model.TwitterAccount;
 import io.meeds.twitter.gamification.service.TwitterConsumerService;
 import io.meeds.twitter.gamification.service.TwitterService;
@@ -58,6 +65,7 @@ import jakarta.servlet.Filter;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(classes = { TwitterAccountRest.class, PortalAuthenticationManager.class, })
 @ContextConfiguration(classes = { WebSecurityConfiguration.class })
@@ -112,6 +120,26 @@ class TwitterAccountRestTest {
     response.andExpect(status().isUnauthorized());
   }
 
+  @Test
+  void getWatchedAccountsWithBatchLookup() throws Exception {
+    TwitterAccount twitterAccount = newWatchedAccount();
+    when(twitterService.getTwitterAccounts(eq(SIMPLE_USER), any())).thenReturn(new PageImpl<>(List.of(twitterAccount)));
+    when(twitterService.getTwitterBearerToken()).thenReturn("bearerToken");
+    when(twitterConsumerService.checkTwitterTokenStatus("bearerToken")).thenReturn(new TokenStatus(true, 10L, 0L));
+    when(twitterConsumerService.retrieveTwitterAccounts(List.of(twitterAccount.getRemoteId()),
+                                                        "bearerToken")).thenReturn(Map.of(twitterAccount.getRemoteId(),
+                                                                                          new RemoteTwitterAccount(twitterAccount.getRemoteId(),
+                                                                                                                   "identifier",
+                                                                                                                   "name",
+                                                                                                                   "description",
+                                                                                                                   "avatarUrl")));
+
+    ResultActions response = mockMvc.perform(get(REST_PATH).with(testSimpleUser()));
+    response.andExpect(status().isOk());
+    verify(twitterConsumerService, times(1)).retrieveTwitterAccounts(List.of(twitterAccount.getRemoteId()), "bearerToken");
+    verify(twitterConsumerService, never()).retrieveTwitterAccount(anyLong(), anyString());
+  }
+
   @Test
   void getWatchedAccountByIdAnonymously() throws Exception {
     ResultActions response = mockMvc.perform(get(REST_PATH + "/" + 1));
@@ -227,7 +255,7 @@ class TwitterAccountRestTest {
   }
 
   private TwitterAccount newWatchedAccount() {
-    return new TwitterAccount(1, 12314, "identifier", "name", "watchedDate", "watchedBy", "updatedDate", "refreshDate", 1234);
+    return new TwitterAccount(1, 12314, "identifier", "name", "watchedDate", "watchedBy", "updatedDate", "refreshDate", 1234, null, null, null, null);
   }
 
 }
@@ -104,6 +104,86 @@ class TwitterSettingsRestTest {
     response.andExpect(status().isUnauthorized());
   }
 
+  @Test
+  void getRateLimitStatusesAnonymously() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/rateLimits"));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getRateLimitStatusesSimpleUser() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/rateLimits").with(testSimpleUser()));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getRateLimitStatusesAdmin() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/rateLimits").with(testAdminUser()));
+    response.andExpect(status().isOk());
+    verify(twitterConsumerService, times(1)).getRateLimitStatuses();
+  }
+
+  @Test
+  void getTransferStatisticsAnonymously() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/transferStatistics"));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getTransferStatisticsSimpleUser() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/transferStatistics").with(testSimpleUser()));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getTransferStatisticsAdmin() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/transferStatistics").with(testAdminUser()));
+    response.andExpect(status().isOk());
+    verify(twitterConsumerService, times(1)).getTransferStatistics();
+  }
+
+  @Test
+  void getApiUsageStatusAnonymously() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/apiUsage"));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getApiUsageStatusSimpleUser() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/apiUsage").with(testSimpleUser()));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getApiUsageStatusAdmin() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/apiUsage").with(testAdminUser()));
+    response.andExpect(status().isNotFound());
+
+    when(twitterService.getTwitterBearerToken(ADMIN_USER)).thenReturn("bearerToken");
+    response = mockMvc.perform(get(REST_PATH + "/apiUsage").with(testAdminUser()));
+    response.andExpect(status().isOk());
+    verify(twitterConsumerService, times(1)).getApiUsageStatus("bearerToken");
+  }
+
+  @Test
+  void getConnectionPoolStatusAnonymously() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/connectionPool"));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getConnectionPoolStatusSimpleUser() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/connectionPool").with(testSimpleUser()));
+    response.andExpect(status().isForbidden());
+  }
+
+  @Test
+  void getConnectionPoolStatusAdmin() throws Exception {
+    ResultActions response = mockMvc.perform(get(REST_PATH + "/connectionPool").with(testAdminUser()));
+    response.andExpect(status().isOk());
+    verify(twitterConsumerService, times(1)).getConnectionPoolStatus();
+  }
+
   @Test
   void saveBearerTokenAnonymously() throws Exception {
     ResultActions response = mockMvc.perform(post(REST_PATH).param("bearerToken", "bearerToken")
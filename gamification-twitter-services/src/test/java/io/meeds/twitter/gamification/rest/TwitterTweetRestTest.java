@@ -27,7 +27,6 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import io.meeds.twitter.gamification.model.Tweet;
 import io.meeds.twitter.gamification.service.TwitterService;
-import org.gatein.common.util.Tools;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -101,7 +100,7 @@ class TwitterTweetRestTest {
   }
 
   private Tweet newWatchedTweet() {
-    return new Tweet(1, "tweetLink", Tools.toSet("user1", "user2", "user3"), Tools.toSet("user1", "user2"));
+    return new Tweet(1, "tweetLink", null, null, 3L, 2L, null, null, new long[] { 1L, 2L, 3L }, new long[] { 1L, 2L });
   }
 
 }
@@ -0,0 +1,183 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.gamification.model.EventDTO;
+import io.meeds.gamification.model.RuleDTO;
+import io.meeds.gamification.service.RuleService;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.service.TwitterConsumerService;
+import io.meeds.twitter.gamification.utils.Utils;
+
+@SpringBootTest(classes = { TwitterPollingPlanner.class, })
+class TwitterPollingPlannerTest {
+
+  @MockBean
+  private TwitterConsumerService twitterConsumerService;
+
+  @MockBean
+  private RuleService            ruleService;
+
+  @Autowired
+  private TwitterPollingPlanner  pollingPlanner;
+
+  @BeforeEach
+  void setup() {
+    when(ruleService.getRules(any(), anyInt(), anyInt())).thenReturn(List.of());
+  }
+
+  @Test
+  void testPlanAllItemsWithUnknownBudget() {
+    setRemainingBudget(Map.of());
+    List<TwitterAccount> twitterAccounts = List.of(newAccount(1L, 11L, 900L, System.currentTimeMillis()),
+                                                   newAccount(2L, 22L, 900L, System.currentTimeMillis()));
+
+    assertEquals(2, pollingPlanner.planAccounts(twitterAccounts).size());
+  }
+
+  @Test
+  void testPlanStalestAccountsWithinBudget() {
+    setRemainingBudget(Map.of(TwitterEndpoint.MENTIONS, 1L));
+    long now = System.currentTimeMillis();
+    TwitterAccount recentAccount = newAccount(1L, 11L, 900L, now);
+    TwitterAccount staleAccount = newAccount(2L, 22L, 900L, now - 3600000L);
+
+    assertEquals(List.of(staleAccount), pollingPlanner.planAccounts(List.of(recentAccount, staleAccount)));
+  }
+
+  @Test
+  void testPlanAccountsWithRulesFirst() {
+    setRemainingBudget(Map.of(TwitterEndpoint.MENTIONS, 1L));
+    long now = System.currentTimeMillis();
+    TwitterAccount firstAccount = newAccount(1L, 11L, 900L, now);
+    TwitterAccount secondAccount = newAccount(2L, 22L, 900L, now);
+    RuleDTO rule = mock(RuleDTO.class);
+    EventDTO event = mock(EventDTO.class);
+    when(rule.getEvent()).thenReturn(event);
+    when(event.getProperties()).thenReturn(Map.of(Utils.ACCOUNT_ID, "22"));
+    when(ruleService.getRules(any(), anyInt(), anyInt())).thenReturn(List.of(rule));
+
+    assertEquals(List.of(secondAccount), pollingPlanner.planAccounts(List.of(firstAccount, secondAccount)));
+  }
+
+  @Test
+  void testPlanCarriedOverTweetsFirst() {
+    setRemainingBudget(Map.of(TwitterEndpoint.LIKING_USERS, 1L, TwitterEndpoint.RETWEETED_BY, 5L));
+    long now = System.currentTimeMillis();
+    // Slightly more active tweet served first
+    Tweet activeTweet = newTweet(1L, 720L, now);
+    Tweet quietTweet = newTweet(2L, 900L, now);
+
+    assertEquals(List.of(activeTweet), pollingPlanner.planTweets(List.of(activeTweet, quietTweet)));
+    // Unserved tweet priority raised until it gets served
+    assertEquals(List.of(quietTweet), pollingPlanner.planTweets(List.of(activeTweet, quietTweet)));
+  }
+
+  @Test
+  void testForgetCarryOverOfItemsNoLongerDue() {
+    setRemainingBudget(Map.of(TwitterEndpoint.LIKING_USERS, 1L, TwitterEndpoint.RETWEETED_BY, 5L));
+    long now = System.currentTimeMillis();
+    Tweet activeTweet = newTweet(3L, 720L, now);
+    Tweet quietTweet = newTweet(4L, 900L, now);
+
+    assertEquals(List.of(activeTweet), pollingPlanner.planTweets(List.of(activeTweet, quietTweet)));
+    // Quiet tweet unwatched or assigned to another node meanwhile
+    assertEquals(List.of(activeTweet), pollingPlanner.planTweets(List.of(activeTweet)));
+    // Carried over priority isn't kept when the tweet is due again
+    assertEquals(List.of(activeTweet), pollingPlanner.planTweets(List.of(activeTweet, quietTweet)));
+  }
+
+  @Test
+  void testPlanTweetsByExpectedPages() {
+    setRemainingBudget(Map.of(TwitterEndpoint.LIKING_USERS, 3L, TwitterEndpoint.RETWEETED_BY, 5L));
+    long now = System.currentTimeMillis();
+    // Likers never retrieved, expected on 3 pages
+    Tweet newTweet = new Tweet(5L, "https://twitter.com/meeds/status/1005", null, null, 250L, 0L, 900L, now, null, null);
+    // Likers already known, retrieved incrementally within a single page
+    Tweet knownTweet = new Tweet(6L,
+                                 "https://twitter.com/meeds/status/1006",
+                                 null,
+                                 null,
+                                 250L,
+                                 0L,
+                                 900L,
+                                 now + 60000L,
+                                 new long[] { 1L },
+                                 new long[] { 2L });
+
+    assertEquals(List.of(newTweet), pollingPlanner.planTweets(List.of(knownTweet, newTweet)));
+  }
+
+  private void setRemainingBudget(Map<TwitterEndpoint, Long> remainingBudget) {
+    List<RateLimitStatus> statuses = Arrays.stream(TwitterEndpoint.values())
+                                           .map(endpoint -> new RateLimitStatus(endpoint,
+                                                                                null,
+                                                                                remainingBudget.get(endpoint),
+                                                                                null,
+                                                                                false))
+                                           .toList();
+    when(twitterConsumerService.getRateLimitStatuses()).thenReturn(statuses);
+  }
+
+  private TwitterAccount newAccount(long id, long remoteId, Long pollInterval, long lastPollTime) {
+    return new TwitterAccount(id,
+                              remoteId,
+                              "account" + id,
+                              "account" + id,
+                              null,
+                              null,
+                              null,
+                              null,
+                              0L,
+                              pollInterval,
+                              lastPollTime + pollInterval * 1000,
+                              null,
+                              null);
+  }
+
+  private Tweet newTweet(long id, Long pollInterval, long lastPollTime) {
+    return new Tweet(id,
+                     "https://twitter.com/meeds/status/" + (1000 + id),
+                     Set.of(),
+                     Set.of(),
+                     null,
+                     null,
+                     pollInterval,
+                     lastPollTime + pollInterval * 1000,
+                     null,
+                     null);
+  }
+}
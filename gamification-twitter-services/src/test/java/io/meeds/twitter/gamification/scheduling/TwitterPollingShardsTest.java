@@ -0,0 +1,109 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.storage.TwitterPollingNodeStorage;
+
+@SpringBootTest(classes = { TwitterPollingShards.class, }, properties = "io.meeds.gamification.twitter.sharding.shards=4")
+class TwitterPollingShardsTest {
+
+  private static final String       NODE_ID = "node1";
+
+  @MockBean
+  private TwitterJobLock            jobLock;
+
+  @MockBean
+  private TwitterPollingNodeStorage pollingNodeStorage;
+
+  @Autowired
+  private TwitterPollingShards      pollingShards;
+
+  @BeforeEach
+  void setup() {
+    when(jobLock.getOwner()).thenReturn(NODE_ID);
+    when(jobLock.tryLock(anyString())).thenReturn(true);
+  }
+
+  @Test
+  void testClaimAllShardsOnSingleNode() {
+    when(pollingNodeStorage.getLiveNodes(any())).thenReturn(List.of(NODE_ID));
+
+    assertEquals(Set.of(0, 1, 2, 3), pollingShards.claimShards());
+    verify(pollingNodeStorage).heartbeat(NODE_ID);
+  }
+
+  @Test
+  void testRemoveDeadNodes() {
+    when(pollingNodeStorage.getLiveNodes(any())).thenReturn(List.of(NODE_ID));
+
+    long minHeartbeatTime = System.currentTimeMillis() - 180 * 1000;
+    pollingShards.claimShards();
+    // Nodes which stopped sending heartbeats are removed with the same
+    // timeout used to compute live nodes
+    verify(pollingNodeStorage).removeDeadNodes(argThat(date -> date.getTime() >= minHeartbeatTime
+        && date.getTime() <= System.currentTimeMillis() - 180 * 1000));
+  }
+
+  @Test
+  void testClaimAssignedShards() {
+    when(pollingNodeStorage.getLiveNodes(any())).thenReturn(List.of(NODE_ID, "node2"));
+    // Shard previously claimed, before node2 joined
+    when(jobLock.isLocked(TwitterPollingShards.SHARD_LOCK_PREFIX + 1)).thenReturn(true);
+    // Shard still locked by another node
+    when(jobLock.tryLock(TwitterPollingShards.SHARD_LOCK_PREFIX + 2)).thenReturn(false);
+
+    assertEquals(Set.of(0), pollingShards.claimShards());
+    verify(jobLock).release(TwitterPollingShards.SHARD_LOCK_PREFIX + 1);
+    verify(jobLock, never()).release(TwitterPollingShards.SHARD_LOCK_PREFIX + 3);
+    verify(jobLock, never()).tryLock(TwitterPollingShards.SHARD_LOCK_PREFIX + 1);
+  }
+
+  @Test
+  void testClaimShardsWhenNodeNotRegistered() {
+    when(pollingNodeStorage.getLiveNodes(any())).thenReturn(List.of("node2"));
+
+    assertTrue(pollingShards.claimShards().isEmpty());
+    verify(jobLock, never()).tryLock(anyString());
+  }
+
+  @Test
+  void testGetShard() {
+    Set<Integer> shards = new HashSet<>();
+    for (long remoteId = 1; remoteId <= 100; remoteId++) {
+      int shard = pollingShards.getShard(remoteId);
+      assertTrue(shard >= 0 && shard < 4);
+      assertEquals(shard, pollingShards.getShard(remoteId));
+      shards.add(shard);
+    }
+    assertEquals(4, shards.size());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling.task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetReactors;
+
+/**
+ * Measures {@link TweetReactionsDiff} computation on tweets with large
+ * reactors lists, where 1% of the known reactors removed their reaction and as
+ * many new reactors came. It isn't run with unit tests, but from the IDE or
+ * with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=io.meeds.twitter.gamification.scheduling.task.TweetReactionsDiffBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class TweetReactionsDiffBenchmark {
+
+  private static final String TWEET_LINK       = "https://twitter.com/meeds/status/1234";
+
+  private static final int    CHANGED_PER_MILL = 10;
+
+  @Param({ "10000", "100000", "1000000" })
+  public int                  reactorsCount;
+
+  private Tweet               tweet;
+
+  private TweetReactors       retrievedLikers;
+
+  private TweetReactors       retrievedRetweeters;
+
+  private TweetReactors       incrementalLikers;
+
+  private TweetReactors       incrementalRetweeters;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(reactorsCount);
+    long[] knownLikerIds = newSortedIds(random, reactorsCount);
+    long[] knownRetweeterIds = newSortedIds(random, reactorsCount);
+    tweet = new Tweet(1L,
+                      TWEET_LINK,
+                      null,
+                      null,
+                      (long) reactorsCount,
+                      (long) reactorsCount,
+                      null,
+                      null,
+                      knownLikerIds,
+                      knownRetweeterIds);
+    long[] newLikerIds = newSortedIds(random, reactorsCount * CHANGED_PER_MILL / 1000);
+    long[] newRetweeterIds = newSortedIds(random, reactorsCount * CHANGED_PER_MILL / 1000);
+    retrievedLikers = newRetrievedReactors(knownLikerIds, newLikerIds);
+    retrievedRetweeters = newRetrievedReactors(knownRetweeterIds, newRetweeterIds);
+    incrementalLikers = newIncrementalReactors(knownLikerIds, newLikerIds);
+    incrementalRetweeters = newIncrementalReactors(knownRetweeterIds, newRetweeterIds);
+  }
+
+  @Benchmark
+  public TweetReactionsDiff computeRetrievedReactors() {
+    return TweetReactionsDiff.compute(tweet, retrievedLikers, retrievedRetweeters);
+  }
+
+  @Benchmark
+  public TweetReactionsDiff computeIncrementalReactors() {
+    return TweetReactionsDiff.compute(tweet, incrementalLikers, incrementalRetweeters);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TweetReactionsDiffBenchmark.class.getSimpleName()).build()).run();
+  }
+
+  private static long[] newSortedIds(Random random, int count) {
+    return LongStream.generate(() -> random.nextLong() & Long.MAX_VALUE).distinct().limit(count).sorted().toArray();
+  }
+
+  /**
+   * @return all reactors retrieved with their usernames, without the removed
+   *         known reactors
+   */
+  private static TweetReactors newRetrievedReactors(long[] knownIds, long[] newIds) {
+    long[] ids = LongStream.concat(LongStream.range(0, knownIds.length)
+                                             .filter(index -> index % (1000 / CHANGED_PER_MILL) != 0)
+                                             .map(index -> knownIds[(int) index]),
+                                   LongStream.of(newIds))
+                           .sorted()
+                           .toArray();
+    return new TweetReactors(ids, newUsernames(ids));
+  }
+
+  /**
+   * @return new reactors retrieved with their usernames, until the first known
+   *         reactor, merged with the known reactors
+   */
+  private static TweetReactors newIncrementalReactors(long[] knownIds, long[] newIds) {
+    long[] ids = LongStream.concat(LongStream.of(knownIds), LongStream.of(newIds)).sorted().toArray();
+    Map<Long, String> usernames = newUsernames(newIds);
+    usernames.put(knownIds[0], "user" + knownIds[0]);
+    return new TweetReactors(ids, usernames);
+  }
+
+  private static Map<Long, String> newUsernames(long[] ids) {
+    Map<Long, String> usernames = new HashMap<>(ids.length * 2);
+    for (long id : ids) {
+      usernames.put(id, "user" + id);
+    }
+    return usernames;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling.task;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetReactors;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+
+class TweetReactionsDiffTest {
+
+  private static final String TWEET_LINK = "https://twitter.com/meeds/status/1234";
+
+  @Test
+  void testComputeWithoutChanges() {
+    Tweet tweet = newTweet(null, new long[] { 1L, 2L }, new long[] { 1L });
+
+    TweetReactionsDiff reactionsDiff = TweetReactionsDiff.compute(tweet,
+                                                                  new TweetReactors(new long[] { 1L, 2L },
+                                                                                    Map.of(2L, "user2", 1L, "user1")),
+                                                                  new TweetReactors(new long[] { 1L }, Map.of(1L, "user1")));
+    assertFalse(reactionsDiff.isChanged());
+    assertTrue(reactionsDiff.getTriggers().isEmpty());
+  }
+
+  @Test
+  void testComputeWithKnownReactorsNotRetrievedAgain() {
+    Tweet tweet = newTweet(null, new long[] { 1L, 2L }, new long[0]);
+
+    // Retrieval stopped at the first known liker, the others are kept
+    TweetReactionsDiff reactionsDiff = TweetReactionsDiff.compute(tweet,
+                                                                  new TweetReactors(new long[] { 1L, 2L, 3L },
+                                                                                    Map.of(3L, "user3", 2L, "user2")),
+                                                                  new TweetReactors(new long[0], Map.of()));
+    assertTrue(reactionsDiff.isChanged());
+    assertEquals(Map.of(3L, "user3"), reactionsDiff.getAddedLikers());
+    assertEquals(0, reactionsDiff.getRemovedLikerIds().length);
+  }
+
+  @Test
+  void testComputeAddedAndRemovedReactors() {
+    Tweet tweet = newTweet(null, new long[] { 1L, 2L }, new long[] { 1L });
+
+    TweetReactionsDiff reactionsDiff = TweetReactionsDiff.compute(tweet,
+                                                                  new TweetReactors(new long[] { 1L, 3L },
+                                                                                    Map.of(1L, "user1", 3L, "user3")),
+                                                                  new TweetReactors(new long[] { 1L, 2L },
+                                                                                    Map.of(1L, "user1", 2L, "user2")));
+    assertTrue(reactionsDiff.isChanged());
+    assertFalse(reactionsDiff.hasMigratedReactors());
+    assertEquals(Map.of(3L, "user3"), reactionsDiff.getAddedLikers());
+    assertArrayEquals(new long[] { 2L }, reactionsDiff.getRemovedLikerIds());
+    assertEquals(Map.of(2L, "user2"), reactionsDiff.getAddedRetweeters());
+    assertEquals(0, reactionsDiff.getRemovedRetweeterIds().length);
+
+    List<TwitterTrigger> triggers = reactionsDiff.getTriggers();
+    assertEquals(List.of(new TwitterTrigger("likeTweet", "user3", 1234L, "tweet", 0),
+                         new TwitterTrigger("retweet", "user2", 1234L, "tweet", 0)),
+                 triggers);
+  }
+
+  @Test
+  void testComputeMigratedReactors() {
+    Tweet tweet = newTweet(Set.of("user1", "user2"), null, null);
+
+    TweetReactionsDiff reactionsDiff = TweetReactionsDiff.compute(tweet,
+                                                                  new TweetReactors(new long[] { 1L, 3L },
+                                                                                    Map.of(1L, "user1", 3L, "user3")),
+                                                                  new TweetReactors(new long[0], Map.of()));
+    assertTrue(reactionsDiff.isChanged());
+    assertTrue(reactionsDiff.hasMigratedReactors());
+    assertEquals(Set.of("user1"), reactionsDiff.getMigratedLikers());
+    assertEquals(Map.of(3L, "user3"), reactionsDiff.getAddedLikers());
+    assertEquals(List.of(new TwitterTrigger("likeTweet", "user3", 1234L, "tweet", 0)), reactionsDiff.getTriggers());
+  }
+
+  private Tweet newTweet(Set<String> likers, long[] likerIds, long[] retweeterIds) {
+    return new Tweet(1L, TWEET_LINK, likers, null, 2L, 1L, null, null, likerIds, retweeterIds);
+  }
+}
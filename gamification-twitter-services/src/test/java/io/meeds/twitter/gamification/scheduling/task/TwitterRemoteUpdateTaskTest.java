@@ -0,0 +1,404 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.scheduling.task;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.model.TweetReactors;
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterMentions;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.scheduling.TwitterPollingPlanner;
+import io.meeds.twitter.gamification.scheduling.TwitterPollingShards;
+import io.meeds.twitter.gamification.service.TwitterConsumerService;
+import io.meeds.twitter.gamification.service.TwitterService;
+import io.meeds.twitter.gamification.service.TwitterTriggerService;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+
+@SpringBootTest(classes = { TwitterRemoteUpdateTask.class, })
+class TwitterRemoteUpdateTaskTest {
+
+  private static final String     BEARER_TOKEN = "bearerToken";
+
+  private static final String     TWEET_LINK   = "https://twitter.com/meeds/status/1234";
+
+  @MockBean
+  private TwitterConsumerService  twitterConsumerService;
+
+  @MockBean
+  private TwitterService          twitterService;
+
+  @MockBean
+  private TwitterTriggerService   twitterTriggerService;
+
+  @MockBean
+  private TwitterPollingShards    pollingShards;
+
+  @MockBean
+  private TwitterPollingPlanner   pollingPlanner;
+
+  @MockBean
+  private TwitterApiUsageLedger   usageLedger;
+
+  @Autowired
+  private TwitterRemoteUpdateTask twitterRemoteUpdateTask;
+
+  @BeforeEach
+  void setup() {
+    when(twitterService.getTwitterBearerToken()).thenReturn(BEARER_TOKEN);
+    when(twitterConsumerService.isTwitterApiAvailable(any(), eq(BEARER_TOKEN))).thenReturn(true);
+    when(pollingShards.claimShards()).thenReturn(Set.of(0));
+    when(pollingShards.getShard(anyLong())).thenReturn(0);
+    when(pollingShards.isLocked(0)).thenReturn(true);
+    when(pollingPlanner.planAccounts(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    when(pollingPlanner.planTweets(any())).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void testSkipWhenNoShardAssigned() {
+    when(pollingShards.claimShards()).thenReturn(Set.of());
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService, never()).getDueTwitterAccounts();
+    verify(twitterService, never()).getDueTweets();
+    verify(pollingShards, never()).unlockShards(any());
+  }
+
+  @Test
+  void testSkipWhenMonthlyCapReached() {
+    when(usageLedger.isCapReached()).thenReturn(true);
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(pollingShards, never()).claimShards();
+    verify(twitterService, never()).getDueTwitterAccounts();
+  }
+
+  @Test
+  void testPollOnlyClaimedShards() {
+    TwitterAccount firstAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 0L, null, null, null, null);
+    TwitterAccount secondAccount = new TwitterAccount(2L, 22L, "second", "second", null, null, null, null, 0L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(firstAccount, secondAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    when(pollingShards.getShard(22L)).thenReturn(1);
+    when(twitterConsumerService.retrieveMentionsAsync(firstAccount,
+                                                      BEARER_TOKEN)).thenReturn(CompletableFuture.completedFuture(new TwitterMentions(List.of(),
+                                                                                                                                      0L,
+                                                                                                                                      null,
+                                                                                                                                      null)));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterConsumerService, never()).retrieveMentionsAsync(eq(secondAccount), any());
+    verify(pollingShards).unlockShards(Set.of(0));
+  }
+
+  @Test
+  void testSkipSavingWhenLockLost() throws Exception {
+    TwitterAccount twitterAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 0L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(twitterAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    when(twitterConsumerService.retrieveMentionsAsync(twitterAccount, BEARER_TOKEN)).thenReturn(newMentions("user1", 101L, 11L));
+    when(pollingShards.isLocked(0)).thenReturn(false);
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService, never()).updateAccountMentionCursor(anyLong(), anyLong(), any(), any());
+    verify(twitterTriggerService, never()).handleTriggerAsync(any());
+    verify(pollingShards).unlockShards(Set.of(0));
+  }
+
+  @Test
+  void testMergeMentionsInAccountsOrder() throws Exception {
+    TwitterAccount firstAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 0L, null, null, null, null);
+    TwitterAccount secondAccount = new TwitterAccount(2L, 22L, "second", "second", null, null, null, null, 0L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(firstAccount, secondAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    // First account mentions are retrieved after the second account ones
+    CompletableFuture<TwitterMentions> delayedMentions =
+        CompletableFuture.supplyAsync(() -> newMentions("user1", 101L, 11L).join(),
+                                      CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+    when(twitterConsumerService.retrieveMentionsAsync(firstAccount, BEARER_TOKEN)).thenReturn(delayedMentions);
+    when(twitterConsumerService.retrieveMentionsAsync(secondAccount, BEARER_TOKEN)).thenReturn(newMentions("user2", 202L, 22L));
+
+    twitterRemoteUpdateTask.execute();
+
+    InOrder inOrder = inOrder(twitterService);
+    inOrder.verify(twitterService).updateAccountMentionCursor(1L, 101L, null, null);
+    inOrder.verify(twitterService).updateAccountMentionCursor(2L, 202L, null, null);
+    verify(twitterTriggerService, times(2)).handleTriggerAsync(any());
+    verify(twitterService).updateAccountPolling(1L, true);
+    verify(twitterService).updateAccountPolling(2L, true);
+  }
+
+  @Test
+  void testAdvanceMentionCursorWithoutTriggers() throws Exception {
+    TwitterAccount twitterAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 100L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(twitterAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    // Only ignored replies were retrieved, with a gap left to retrieve
+    TwitterMentions twitterMentions = new TwitterMentions(List.of(), 150L, 100L, 120L);
+    when(twitterConsumerService.retrieveMentionsAsync(twitterAccount,
+                                                      BEARER_TOKEN)).thenReturn(CompletableFuture.completedFuture(twitterMentions));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService).updateAccountMentionCursor(1L, 150L, 100L, 120L);
+    verify(twitterService).updateAccountPolling(1L, false);
+    verify(twitterTriggerService, never()).handleTriggerAsync(any());
+  }
+
+  @Test
+  void testSaveEachAccountSeparately() throws Exception {
+    TwitterAccount firstAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 0L, null, null, null, null);
+    TwitterAccount secondAccount = new TwitterAccount(2L, 22L, "second", "second", null, null, null, null, 0L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(firstAccount, secondAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    when(twitterConsumerService.retrieveMentionsAsync(firstAccount, BEARER_TOKEN)).thenReturn(newMentions("user1", 101L, 11L));
+    when(twitterConsumerService.retrieveMentionsAsync(secondAccount, BEARER_TOKEN)).thenReturn(newMentions("user2", 202L, 22L));
+    doThrow(new IllegalStateException("Database error")).when(twitterService).updateAccountMentionCursor(1L, 101L, null, null);
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService).updateAccountMentionCursor(2L, 202L, null, null);
+    verify(twitterService).updateAccountPolling(2L, true);
+    // Mentions of the account which couldn't be saved will be retrieved again
+    verify(twitterTriggerService, times(1)).handleTriggerAsync(argThat(trigger -> trigger.getTweetId() == 202L));
+    verify(twitterTriggerService, never()).handleTriggerAsync(argThat(trigger -> trigger.getTweetId() == 101L));
+  }
+
+  @Test
+  void testFetchTweetReactionsConcurrently() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 2L, 1L)));
+    TweetReactors likers = new TweetReactors(new long[] { 1L, 2L }, Map.of(1L, "user1", 2L, "user2"));
+    TweetReactors retweeters = new TweetReactors(new long[] { 3L }, Map.of(3L, "user3"));
+    CompletableFuture<TweetReactors> likersFuture = new CompletableFuture<>();
+    when(twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK, BEARER_TOKEN, tweet.getLikerIds())).thenReturn(likersFuture);
+    // Retweeters are requested without waiting for likers response
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK,
+                                                             BEARER_TOKEN,
+                                                             tweet.getRetweeterIds())).thenAnswer(invocation -> {
+                                                               likersFuture.complete(likers);
+                                                               return CompletableFuture.completedFuture(retweeters);
+                                                             });
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService).loadLegacyTweetReactors(List.of(tweet));
+    verify(twitterService).updateTweetReactors(1L, new long[] { 1L, 2L }, new long[] { 3L });
+    verify(twitterService, never()).removeLegacyTweetReactors(anyLong(), any(), any());
+    verify(twitterService).updateTweetMetrics(1L, 2L, 1L);
+    verify(twitterTriggerService, times(2)).handleTriggerAsync(any());
+    verify(twitterService).updateTweetPolling(1L, true);
+  }
+
+  @Test
+  void testMigrateReactorsStoredByUsername() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, Set.of("user1"), Set.of(), 1L, 0L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 2L, 0L)));
+    TweetReactors likers = new TweetReactors(new long[] { 1L, 2L }, Map.of(1L, "user1", 2L, "user2"));
+    TweetReactors retweeters = new TweetReactors(new long[0], Map.of());
+    when(twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK,
+                                                         BEARER_TOKEN,
+                                                         null)).thenReturn(CompletableFuture.completedFuture(likers));
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK,
+                                                             BEARER_TOKEN,
+                                                             null)).thenReturn(CompletableFuture.completedFuture(retweeters));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService).updateTweetReactors(1L, new long[] { 1L, 2L }, new long[0]);
+    verify(twitterService).removeLegacyTweetReactors(1L, Set.of("user1"), Set.of());
+    // Reaction stored by username isn't triggered again
+    verify(twitterTriggerService, times(1)).handleTriggerAsync(argThat(trigger -> "user2".equals(trigger.getTwitterUsername())));
+    verify(twitterTriggerService, never()).handleTriggerAsync(argThat(trigger -> "user1".equals(trigger.getTwitterUsername())));
+  }
+
+  @Test
+  void testBackOffQuietTweets() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 1L, 0L)));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterConsumerService, never()).retrieveTweetLikersAsync(any(), any(), any());
+    verify(twitterService, never()).loadLegacyTweetReactors(any());
+    verify(twitterService).updateTweetPolling(1L, false);
+  }
+
+  @Test
+  void testFetchReactorsOfTweetsWithoutMetrics() throws Exception {
+    String otherTweetLink = "https://twitter.com/meeds/status/5678";
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    Tweet otherTweet = new Tweet(2L, otherTweetLink, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet, otherTweet));
+    // Metrics batch of the other tweet failed
+    Map<Long, TweetMetrics> tweetsMetrics = new HashMap<>();
+    tweetsMetrics.put(1234L, new TweetMetrics(1234L, 1L, 0L));
+    tweetsMetrics.put(5678L, null);
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L, 5678L), BEARER_TOKEN)).thenReturn(tweetsMetrics);
+    TweetReactors reactors = new TweetReactors(new long[] { 1L }, Map.of(1L, "user1"));
+    when(twitterConsumerService.retrieveTweetLikersAsync(eq(otherTweetLink),
+                                                         eq(BEARER_TOKEN),
+                                                         any())).thenReturn(CompletableFuture.completedFuture(reactors));
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(eq(otherTweetLink),
+                                                             eq(BEARER_TOKEN),
+                                                             any())).thenReturn(CompletableFuture.completedFuture(new TweetReactors(new long[0],
+                                                                                                                                    Map.of())));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterConsumerService, never()).retrieveTweetLikersAsync(eq(TWEET_LINK), any(), any());
+    verify(twitterService).updateTweetPolling(1L, false);
+    verify(twitterConsumerService).retrieveTweetLikersAsync(eq(otherTweetLink), eq(BEARER_TOKEN), any());
+    verify(twitterService).updateTweetPolling(2L, false);
+  }
+
+  @Test
+  void testKeepUnplannedTweetsDue() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 2L, 1L)));
+    // No remaining API budget for reactions
+    when(pollingPlanner.planTweets(List.of(tweet))).thenReturn(List.of());
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterConsumerService, never()).retrieveTweetLikersAsync(any(), any(), any());
+    verify(twitterService, never()).updateTweetPolling(anyLong(), anyBoolean());
+  }
+
+  @Test
+  void testKeepTweetReactionsWhenRetrievalFails() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, null, null, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    // Tweets metrics lookup unavailable
+    when(twitterConsumerService.retrieveTweetsMetrics(any(), eq(BEARER_TOKEN))).thenReturn(null);
+    TweetReactors retweeters = new TweetReactors(new long[] { 3L }, Map.of(3L, "user3"));
+    when(twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK,
+                                                         BEARER_TOKEN,
+                                                         tweet.getLikerIds())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException()));
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK,
+                                                             BEARER_TOKEN,
+                                                             tweet.getRetweeterIds())).thenReturn(CompletableFuture.completedFuture(retweeters));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService, never()).updateTweetReactors(anyLong(), any(), any());
+    verify(twitterTriggerService, never()).handleTriggerAsync(any());
+    // Tweet remains due for the next cycle
+    verify(twitterService, never()).updateTweetPolling(anyLong(), anyBoolean());
+  }
+
+  @Test
+  void testKeepTweetDueWhenLegacyReactorsLoadingFails() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 2L, 1L)));
+    TweetReactors likers = new TweetReactors(new long[] { 1L, 2L }, Map.of(1L, "user1", 2L, "user2"));
+    TweetReactors retweeters = new TweetReactors(new long[0], Map.of());
+    when(twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK,
+                                                         BEARER_TOKEN,
+                                                         tweet.getLikerIds())).thenReturn(CompletableFuture.completedFuture(likers));
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK,
+                                                             BEARER_TOKEN,
+                                                             tweet.getRetweeterIds())).thenReturn(CompletableFuture.completedFuture(retweeters));
+    doThrow(new IllegalStateException()).when(twitterService).loadLegacyTweetReactors(any());
+
+    twitterRemoteUpdateTask.execute();
+
+    // Reactions can't be compared to reactors stored by username
+    verify(twitterService, never()).updateTweetReactors(anyLong(), any(), any());
+    verify(twitterTriggerService, never()).handleTriggerAsync(any());
+    verify(twitterService, never()).updateTweetPolling(anyLong(), anyBoolean());
+  }
+
+  @Test
+  void testKeepTweetDueWhenReactorsRetrievalRejected() throws Exception {
+    Tweet tweet = new Tweet(1L, TWEET_LINK, null, null, 1L, 0L, null, null, new long[] { 1L }, new long[0]);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of());
+    when(twitterService.getDueTweets()).thenReturn(List.of(tweet));
+    when(twitterConsumerService.retrieveTweetsMetrics(List.of(1234L),
+                                                      BEARER_TOKEN)).thenReturn(Map.of(1234L, new TweetMetrics(1234L, 2L, 1L)));
+    // Reactors retrieval rejected by rate limit or circuit breaker
+    when(twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK,
+                                                         BEARER_TOKEN,
+                                                         tweet.getLikerIds())).thenReturn(CompletableFuture.completedFuture(null));
+    when(twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK,
+                                                             BEARER_TOKEN,
+                                                             tweet.getRetweeterIds())).thenReturn(CompletableFuture.completedFuture(null));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService, never()).updateTweetReactors(anyLong(), any(), any());
+    verify(twitterService, never()).updateTweetMetrics(anyLong(), anyLong(), anyLong());
+    verify(twitterService, never()).updateTweetPolling(anyLong(), anyBoolean());
+  }
+
+  @Test
+  void testKeepAccountDueWhenMentionsRetrievalRejected() throws Exception {
+    TwitterAccount twitterAccount = new TwitterAccount(1L, 11L, "first", "first", null, null, null, null, 100L, null, null, null, null);
+    when(twitterService.getDueTwitterAccounts()).thenReturn(List.of(twitterAccount));
+    when(twitterService.getDueTweets()).thenReturn(List.of());
+    when(twitterConsumerService.retrieveMentionsAsync(twitterAccount, BEARER_TOKEN)).thenReturn(CompletableFuture.completedFuture(null));
+
+    twitterRemoteUpdateTask.execute();
+
+    verify(twitterService, never()).updateAccountMentionCursor(anyLong(), anyLong(), any(), any());
+    verify(twitterService, never()).updateAccountPolling(anyLong(), anyBoolean());
+  }
+
+  private CompletableFuture<TwitterMentions> newMentions(String username, long tweetId, long accountRemoteId) {
+    TwitterTrigger mentionTrigger = new TwitterTrigger("mentionAccount", username, tweetId, "tweet", accountRemoteId);
+    return CompletableFuture.completedFuture(new TwitterMentions(List.of(mentionTrigger), tweetId, null, null));
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ *
+ */
+package io.meeds.twitter.gamification.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.exoplatform.commons.exception.ObjectNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.config.TwitterConsumerConfig;
+import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
+import io.meeds.twitter.gamification.model.TweetReactors;
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterMentions;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.service.impl.TwitterConsumerServiceImpl;
+import io.meeds.twitter.gamification.storage.TwitterConsumerStorage;
+
+@SpringBootTest(classes = { TwitterConsumerServiceImpl.class, TwitterConsumerConfig.class, })
+class TwitterConsumerServiceTest {
+
+  private static final String    BEARER_TOKEN = "bearerToken";
+
+  private static final String    TWEET_LINK   = "https://twitter.com/meeds/status/1234";
+
+  @MockBean
+  private TwitterConsumerStorage twitterConsumerStorage;
+
+  @Autowired
+  private TwitterConsumerService twitterConsumerService;
+
+  @Test
+  void testRetrieveTweetReactionsAsync() {
+    TweetReactors tweetLikers = new TweetReactors(new long[] { 1L, 2L, 3L }, Map.of(1L, "user1", 2L, "user2", 3L, "user3"));
+    TweetReactors tweetRetweeters = new TweetReactors(new long[] { 1L, 2L }, Map.of(1L, "user1", 2L, "user2"));
+    when(twitterConsumerStorage.retrieveTweetLikers(TWEET_LINK, BEARER_TOKEN)).thenReturn(tweetLikers);
+    when(twitterConsumerStorage.retrieveTweetRetweeters(TWEET_LINK, BEARER_TOKEN)).thenReturn(tweetRetweeters);
+
+    assertEquals(tweetLikers, twitterConsumerService.retrieveTweetLikersAsync(TWEET_LINK, BEARER_TOKEN).join());
+    assertEquals(tweetRetweeters, twitterConsumerService.retrieveTweetRetweetersAsync(TWEET_LINK, BEARER_TOKEN).join());
+  }
+
+  @Test
+  void testRetrieveMentionsAsync() {
+    TwitterAccount twitterAccount = new TwitterAccount();
+    twitterAccount.setRemoteId(11222121L);
+    List<TwitterTrigger> twitterTriggers = List.of(new TwitterTrigger("mentionAccount", "user1", 1254555L, "tweet", 11222121L));
+    TwitterMentions twitterMentions = new TwitterMentions(twitterTriggers, 1254555L, null, null);
+    when(twitterConsumerStorage.retrieveMentions(twitterAccount, BEARER_TOKEN)).thenReturn(twitterMentions);
+
+    assertEquals(twitterMentions, twitterConsumerService.retrieveMentionsAsync(twitterAccount, BEARER_TOKEN).join());
+  }
+
+  @Test
+  void testRetrieveTwitterAccountAsync() throws Exception {
+    RemoteTwitterAccount remoteTwitterAccount = new RemoteTwitterAccount(1, "username", "name", "description", "avatarUrl");
+    when(twitterConsumerStorage.retrieveTwitterAccount(1L, BEARER_TOKEN)).thenReturn(remoteTwitterAccount);
+    when(twitterConsumerStorage.retrieveTwitterAccount("username", BEARER_TOKEN)).thenReturn(remoteTwitterAccount);
+    when(twitterConsumerStorage.retrieveTwitterAccount("unknown",
+                                                       BEARER_TOKEN)).thenThrow(new ObjectNotFoundException("twitter.accountNotFound"));
+
+    assertEquals(remoteTwitterAccount, twitterConsumerService.retrieveTwitterAccountAsync(1L, BEARER_TOKEN).join());
+    assertEquals(remoteTwitterAccount, twitterConsumerService.retrieveTwitterAccountAsync("username", BEARER_TOKEN).join());
+    CompletionException exception = assertThrows(CompletionException.class,
+                                                 () -> twitterConsumerService.retrieveTwitterAccountAsync("unknown",
+                                                                                                          BEARER_TOKEN)
+                                                                             .join());
+    assertTrue(exception.getCause() instanceof ObjectNotFoundException);
+  }
+}
@@ -28,16 +28,18 @@ import io.meeds.gamification.model.filter.RuleFilter;
 import io.meeds.gamification.service.RuleService;
 import io.meeds.twitter.gamification.model.RemoteTwitterAccount;
 import io.meeds.twitter.gamification.model.Tweet;
+import io.meeds.twitter.gamification.model.TweetReactors;
 import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterMentions;
 import io.meeds.twitter.gamification.model.TwitterTrigger;
 import io.meeds.twitter.gamification.service.impl.TwitterServiceImpl;
 import io.meeds.twitter.gamification.storage.TwitterAccountStorage;
 import io.meeds.twitter.gamification.storage.TwitterTweetStorage;
 import org.exoplatform.commons.exception.ObjectNotFoundException;
 import org.exoplatform.web.security.codec.CodecInitializer;
-import org.gatein.common.util.Tools;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -45,7 +47,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @SpringBootTest(classes = { TwitterServiceImpl.class })
 class TwitterServiceTest {
@@ -90,7 +92,10 @@ class TwitterServiceTest {
     TwitterTrigger twitterTrigger1 = new TwitterTrigger(MENTION_ACCOUNT_EVENT_NAME, "user2", 12548855L, "tweet", 11222121L);
     twitterTriggers.add(twitterTrigger);
     twitterTriggers.add(twitterTrigger1);
-    when(twitterConsumerService.getMentionEvents(any(), anyLong(), anyString())).thenReturn(twitterTriggers);
+    when(twitterConsumerService.retrieveMentions(any(), anyString())).thenReturn(new TwitterMentions(twitterTriggers,
+                                                                                                     12548855L,
+                                                                                                     null,
+                                                                                                     null));
 
     // When
     when(twitterAccountStorage.countTwitterAccounts()).thenReturn(0L);
@@ -152,8 +157,8 @@ class TwitterServiceTest {
 
   @Test
   void testAddTweetToWatch() {
-    Set<String> tweetLikers = Tools.toSet("user1", "user2", "user3");
-    Set<String> tweetRetweeters = Tools.toSet("user1", "user2");
+    TweetReactors tweetLikers = new TweetReactors(new long[] { 1L, 2L, 3L }, Map.of(1L, "user1", 2L, "user2", 3L, "user3"));
+    TweetReactors tweetRetweeters = new TweetReactors(new long[] { 1L, 2L }, Map.of(1L, "user1", 2L, "user2"));
 
     Tweet tweet = new Tweet();
     when(twitterTweetStorage.getTweetByLink("existTweetLink")).thenReturn(tweet);
@@ -167,7 +172,10 @@ class TwitterServiceTest {
     twitterService.addTweetToWatch("tweetLink");
 
     // Then
-    verify(twitterTweetStorage, times(1)).addTweetToWatch(any());
+    ArgumentCaptor<Tweet> tweetCaptor = ArgumentCaptor.forClass(Tweet.class);
+    verify(twitterTweetStorage, times(1)).addTweetToWatch(tweetCaptor.capture());
+    assertArrayEquals(new long[] { 1L, 2L, 3L }, tweetCaptor.getValue().getLikerIds());
+    assertArrayEquals(new long[] { 1L, 2L }, tweetCaptor.getValue().getRetweeterIds());
 
   }
 }
@@ -26,12 +26,14 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import io.meeds.twitter.gamification.dao.TwitterAccountDAO;
 import io.meeds.twitter.gamification.entity.TwitterAccountEntity;
 import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
 import org.exoplatform.commons.api.settings.SettingService;
 import org.exoplatform.web.security.codec.CodecInitializer;
 import org.junit.jupiter.api.BeforeEach;
@@ -48,7 +50,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
-@SpringBootTest(classes = { TwitterAccountStorage.class, })
+@SpringBootTest(classes = { TwitterAccountStorage.class, TwitterPollingPolicy.class, })
 @ExtendWith(MockitoExtension.class)
 class TwitterAccountStorageTest {
 
@@ -64,6 +66,9 @@ class TwitterAccountStorageTest {
   @MockBean
   private TwitterAccountDAO     twitterAccountDAO;
 
+  @MockBean
+  private TwitterApiUsageLedger usageLedger;
+
   @MockBean
   private SettingService        settingService;
 
@@ -142,6 +147,48 @@ class TwitterAccountStorageTest {
     assertEquals(122121, account.getLastMentionTweetId());
   }
 
+  @Test
+  void testUpdateAccountMentionCursor() throws Exception {
+    assertNull(twitterAccountStorage.updateAccountMentionCursor(10L, 122121L, 100L, 120L));
+
+    TwitterAccount createdTwitterAccount = twitterAccountStorage.addTwitterAccount(createTwitterAccountInstance());
+    TwitterAccount account = twitterAccountStorage.updateAccountMentionCursor(createdTwitterAccount.getId(), 122121L, 100L, 120L);
+    assertNotNull(account);
+    assertEquals(122121, account.getLastMentionTweetId());
+    assertEquals(100L, account.getMentionGapSinceId());
+    assertEquals(120L, account.getMentionGapUntilId());
+
+    // Gap filled
+    account = twitterAccountStorage.updateAccountMentionCursor(createdTwitterAccount.getId(), 122121L, null, null);
+    assertNull(account.getMentionGapSinceId());
+    assertNull(account.getMentionGapUntilId());
+  }
+
+  @Test
+  void testUpdateAccountPolling() throws Exception {
+    // When
+    TwitterAccount account = twitterAccountStorage.updateAccountPolling(10L, true);
+
+    // Then
+    assertNull(account);
+
+    // When
+    TwitterAccount createdTwitterAccount = twitterAccountStorage.addTwitterAccount(createTwitterAccountInstance());
+    account = twitterAccountStorage.updateAccountPolling(createdTwitterAccount.getId(), true);
+
+    // Then
+    assertNotNull(account);
+    TwitterAccountEntity twitterAccountEntity = twitterAccountDAO.findById(ID).orElseThrow();
+    assertEquals(450L, twitterAccountEntity.getPollInterval());
+    assertTrue(twitterAccountEntity.getNextPollDate().after(new Date()));
+
+    // When
+    when(twitterAccountDAO.findDueAccounts(any())).thenReturn(List.of(twitterAccountEntity));
+
+    // Then
+    assertEquals(1, twitterAccountStorage.getDueTwitterAccounts(new Date()).size());
+  }
+
   @Test
   void testGetTwitterAccountById() throws Exception {
     // Given
@@ -0,0 +1,120 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import io.meeds.twitter.gamification.config.TwitterHttpClientConfig;
+import io.meeds.twitter.gamification.model.TweetMetrics;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+import io.meeds.twitter.gamification.storage.client.TwitterCircuitBreaker;
+import io.meeds.twitter.gamification.storage.client.TwitterRateLimitGovernor;
+import io.meeds.twitter.gamification.storage.client.TwitterRequestCoalescer;
+import io.meeds.twitter.gamification.storage.client.TwitterTokenStatusCache;
+import io.meeds.twitter.gamification.storage.client.TwitterTransferStatistics;
+
+@SpringBootTest(classes = { TwitterConsumerStorage.class, TwitterRequestCoalescer.class, },
+    properties = "io.meeds.gamification.twitter.coalescing.ttlMillis=0")
+class TwitterConsumerStorageTest {
+
+  private static final String                BEARER_TOKEN = "bearerToken";
+
+  @MockBean
+  private TwitterRateLimitGovernor           rateLimitGovernor;
+
+  @MockBean
+  private TwitterCircuitBreaker              circuitBreaker;
+
+  @MockBean
+  private TwitterTokenStatusCache            tokenStatusCache;
+
+  @MockBean
+  private TwitterTransferStatistics          transferStatistics;
+
+  @MockBean
+  private TwitterApiUsageLedger              usageLedger;
+
+  @MockBean
+  private CacheManager                       cacheManager;
+
+  @MockBean(name = TwitterHttpClientConfig.TWITTER_HTTP_CLIENT)
+  private HttpClient                         httpClient;
+
+  @MockBean(name = TwitterHttpClientConfig.TWITTER_CONNECTION_MANAGER)
+  private PoolingHttpClientConnectionManager connectionManager;
+
+  @Autowired
+  private TwitterConsumerStorage             twitterConsumerStorage;
+
+  @Test
+  void testKeepTweetsMetricsWhenBatchFails() throws Exception {
+    List<Long> tweetIds = LongStream.rangeClosed(1, 250).boxed().toList();
+    when(httpClient.execute(any(HttpUriRequest.class))).thenAnswer(invocation -> {
+      String uri = invocation.getArgument(0, HttpUriRequest.class).getURI().toString();
+      if (uri.contains("ids=101,")) {
+        // Second batch fails
+        return newResponse(400, "{\"title\":\"Invalid Request\"}");
+      }
+      String data = Arrays.stream(StringUtils.substringBetween(uri, "ids=", "&").split(","))
+                          .map(id -> "{\"id\":\"" + id + "\",\"public_metrics\":{\"like_count\":" + id + ",\"retweet_count\":0}}")
+                          .collect(Collectors.joining(","));
+      return newResponse(200, "{\"data\":[" + data + "]}");
+    });
+
+    Map<Long, TweetMetrics> tweetsMetrics = twitterConsumerStorage.retrieveTweetsMetrics(tweetIds, BEARER_TOKEN);
+
+    assertNotNull(tweetsMetrics);
+    assertEquals(250, tweetsMetrics.size());
+    assertEquals(new TweetMetrics(1L, 1L, 0L), tweetsMetrics.get(1L));
+    assertEquals(new TweetMetrics(250L, 250L, 0L), tweetsMetrics.get(250L));
+    // Tweets of the failed batch are kept without metrics
+    assertTrue(tweetsMetrics.containsKey(101L));
+    assertNull(tweetsMetrics.get(101L));
+    assertNull(tweetsMetrics.get(200L));
+    verify(httpClient, times(3)).execute(any(HttpUriRequest.class));
+  }
+
+  private HttpResponse newResponse(int statusCode, String body) {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+    response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+    return response;
+  }
+}
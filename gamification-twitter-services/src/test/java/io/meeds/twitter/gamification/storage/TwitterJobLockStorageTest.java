@@ -0,0 +1,99 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.dao.TwitterJobLockDAO;
+import io.meeds.twitter.gamification.entity.TwitterJobLockEntity;
+
+@SpringBootTest(classes = { TwitterJobLockStorage.class, })
+class TwitterJobLockStorageTest {
+
+  private static final String   LOCK_NAME = "lockName";
+
+  private static final long     LEASE     = 60000L;
+
+  @Autowired
+  private TwitterJobLockStorage twitterJobLockStorage;
+
+  @MockBean
+  private TwitterJobLockDAO     twitterJobLockDAO;
+
+  @BeforeEach
+  void setup() {
+    when(twitterJobLockDAO.findById(LOCK_NAME)).thenReturn(Optional.empty());
+    when(twitterJobLockDAO.saveAndFlush(any())).thenAnswer(invocation -> {
+      TwitterJobLockEntity entity = invocation.getArgument(0);
+      when(twitterJobLockDAO.findById(LOCK_NAME)).thenReturn(Optional.of(entity));
+      return entity;
+    });
+  }
+
+  @Test
+  void testTryAcquire() {
+    assertTrue(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node1", LEASE));
+    // Lease renewed by the same owner
+    assertTrue(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node1", LEASE));
+    // Lease held by another owner
+    assertFalse(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node2", LEASE));
+    assertFalse(twitterJobLockStorage.renew(LOCK_NAME, "node2", LEASE));
+    assertTrue(twitterJobLockStorage.renew(LOCK_NAME, "node1", LEASE));
+  }
+
+  @Test
+  void testTryAcquireExpiredLock() {
+    TwitterJobLockEntity entity = new TwitterJobLockEntity();
+    entity.setName(LOCK_NAME);
+    entity.setOwner("node1");
+    entity.setExpiryDate(new Date(System.currentTimeMillis() - 1000));
+    when(twitterJobLockDAO.findById(LOCK_NAME)).thenReturn(Optional.of(entity));
+
+    assertTrue(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node2", LEASE));
+    assertEquals("node2", twitterJobLockDAO.findById(LOCK_NAME).orElseThrow().getOwner());
+    assertFalse(twitterJobLockStorage.renew(LOCK_NAME, "node1", LEASE));
+  }
+
+  @Test
+  void testTryAcquireConcurrently() {
+    doThrow(new IllegalStateException("Optimistic lock failure")).when(twitterJobLockDAO).saveAndFlush(any());
+
+    assertFalse(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node1", LEASE));
+  }
+
+  @Test
+  void testRelease() {
+    assertTrue(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node1", LEASE));
+    twitterJobLockStorage.release(LOCK_NAME, "node2");
+    assertFalse(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node2", LEASE));
+
+    twitterJobLockStorage.release(LOCK_NAME, "node1");
+    assertTrue(twitterJobLockStorage.tryAcquire(LOCK_NAME, "node2", LEASE));
+  }
+}
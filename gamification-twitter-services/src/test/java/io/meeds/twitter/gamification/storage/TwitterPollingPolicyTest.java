@@ -0,0 +1,66 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+
+@SpringBootTest(classes = { TwitterPollingPolicy.class, })
+class TwitterPollingPolicyTest {
+
+  @MockBean
+  private TwitterApiUsageLedger usageLedger;
+
+  @Autowired
+  private TwitterPollingPolicy  pollingPolicy;
+
+  @Test
+  void testGetNextInterval() {
+    assertEquals(450L, pollingPolicy.getNextInterval(null, true));
+    assertEquals(1800L, pollingPolicy.getNextInterval(null, false));
+    assertEquals(3600L, pollingPolicy.getNextInterval(1800L, false));
+    assertEquals(300L, pollingPolicy.getNextInterval(400L, true));
+    assertEquals(86400L, pollingPolicy.getNextInterval(86400L, false));
+  }
+
+  @Test
+  void testGetNextPollDate() {
+    long now = System.currentTimeMillis();
+    Date nextPollDate = pollingPolicy.getNextPollDate(600L);
+    assertTrue(nextPollDate.getTime() >= now + 600000L);
+  }
+
+  @Test
+  void testPostponeNextPollDateWhenThrottled() {
+    when(usageLedger.getThrottleFactor()).thenReturn(2d);
+    long now = System.currentTimeMillis();
+    Date nextPollDate = pollingPolicy.getNextPollDate(600L);
+    assertTrue(nextPollDate.getTime() >= now + 1200000L);
+    // Stored interval isn't impacted by throttling
+    assertEquals(1800L, pollingPolicy.getNextInterval(null, false));
+  }
+}
@@ -23,14 +23,21 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import io.meeds.twitter.gamification.dao.TwitterTweetDAO;
+import io.meeds.twitter.gamification.dao.TwitterTweetListing;
+import io.meeds.twitter.gamification.dao.TwitterTweetReactorDAO;
+import io.meeds.twitter.gamification.dao.TwitterTweetReactorUsername;
 import io.meeds.twitter.gamification.entity.TwitterTweetEntity;
 import io.meeds.twitter.gamification.model.Tweet;
-import org.gatein.common.util.Tools;
+import io.meeds.twitter.gamification.storage.client.TwitterApiUsageLedger;
+import io.meeds.twitter.gamification.utils.ReactorIdsCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,26 +45,33 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 
-@SpringBootTest(classes = { TwitterTweetStorage.class, })
+@SpringBootTest(classes = { TwitterTweetStorage.class, TwitterPollingPolicy.class, })
 @ExtendWith(MockitoExtension.class)
 class TwitterTweetStorageTest {
 
-  private static final Long     ID         = 2L;
+  private static final Long      ID         = 2L;
 
-  private static final String   TWEET_LINK = "tweetLink";
+  private static final String    TWEET_LINK = "tweetLink";
 
-  private static final Pageable PAGEABLE   = Pageable.ofSize(2);
+  private static final Pageable  PAGEABLE   = Pageable.ofSize(2);
 
   @Autowired
-  private TwitterTweetStorage   twitterTweetStorage;
+  private TwitterTweetStorage    twitterTweetStorage;
 
   @MockBean
-  private TwitterTweetDAO       twitterTweetDAO;
+  private TwitterTweetDAO        twitterTweetDAO;
+
+  @MockBean
+  private TwitterTweetReactorDAO twitterTweetReactorDAO;
+
+  @MockBean
+  private TwitterApiUsageLedger  usageLedger;
 
   @BeforeEach
   void setup() {
@@ -68,7 +82,8 @@ class TwitterTweetStorageTest {
       }
       when(twitterTweetDAO.findById(ID)).thenReturn(Optional.of(entity));
       when(twitterTweetDAO.findTwitterTweetEntityByTweetLink(TWEET_LINK)).thenReturn(entity);
-      when(twitterTweetDAO.findAll(PAGEABLE)).thenReturn(new PageImpl<>(List.of(entity)));
+      when(twitterTweetDAO.findListings(PAGEABLE)).thenReturn(new PageImpl<>(List.of(newListing(entity))));
+      when(twitterTweetDAO.findListings()).thenReturn(List.of(newListing(entity)));
       when(twitterTweetDAO.count()).thenReturn(1L);
       return entity;
     });
@@ -83,6 +98,7 @@ class TwitterTweetStorageTest {
   void testAddTweetToWatch() {
     // Given
     Tweet tweet = createTwitterTweetInstance();
+    tweet.setLikerIds(new long[] { 2L, 300L, 1234567890123L });
 
     // When
     Tweet createdTweet = twitterTweetStorage.addTweetToWatch(tweet);
@@ -90,6 +106,8 @@ class TwitterTweetStorageTest {
     // Then
     assertNotNull(createdTweet);
     assertEquals(tweet.getTweetLink(), createdTweet.getTweetLink());
+    assertArrayEquals(tweet.getLikerIds(), createdTweet.getLikerIds());
+    assertEquals(0, createdTweet.getRetweeterIds().length);
 
     createdTweet = twitterTweetStorage.addTweetToWatch(tweet);
     assertNull(createdTweet);
@@ -119,32 +137,129 @@ class TwitterTweetStorageTest {
 
     // Then
     assertNotNull(createdTweet);
-    assertEquals(new PageImpl<>(List.of(createdTweet)), twitterTweetStorage.getTweets(PAGEABLE));
+    Page<Tweet> tweets = twitterTweetStorage.getTweets(PAGEABLE);
+    assertEquals(1, tweets.getContent().size());
+    assertEquals(createdTweet.getTweetId(), tweets.getContent().get(0).getTweetId());
+    assertEquals(createdTweet.getTweetLink(), tweets.getContent().get(0).getTweetLink());
+    // Listings don't load reactors
+    assertNull(tweets.getContent().get(0).getLikerIds());
+    assertEquals(List.of(createdTweet.getTweetLink()), twitterTweetStorage.getTweets().stream().map(Tweet::getTweetLink).toList());
     assertEquals(1L, twitterTweetStorage.countTweets());
   }
 
   @Test
   void testTweetReactions() {
+    // When
+    long[] likerIds = new long[] { 1L, 2L, 3L };
+    long[] retweeterIds = new long[] { 1L, 2L };
+
+    // Then
+    assertFalse(twitterTweetStorage.updateTweetReactors(10L, likerIds, retweeterIds));
+
+    // When
+    Tweet createdTweet = twitterTweetStorage.addTweetToWatch(createTwitterTweetInstance());
+    when(twitterTweetDAO.updateReactorIds(eq(createdTweet.getTweetId()), any(), any())).thenReturn(1);
+
+    // Then
+    assertTrue(twitterTweetStorage.updateTweetReactors(createdTweet.getTweetId(), likerIds, retweeterIds));
+    verify(twitterTweetDAO).updateReactorIds(createdTweet.getTweetId(),
+                                             ReactorIdsCodec.encode(likerIds),
+                                             ReactorIdsCodec.encode(retweeterIds));
+
+    // When
+    twitterTweetStorage.removeLegacyTweetReactors(createdTweet.getTweetId(), Set.of("user3"), Set.of());
+
+    // Then
+    verify(twitterTweetReactorDAO).removeLikers(createdTweet.getTweetId(), Set.of("user3"));
+    verify(twitterTweetReactorDAO).removeRetweeters(createdTweet.getTweetId(), Set.of());
+  }
+
+  @Test
+  void testSaveAndReloadManyTweetReactors() {
+    // Given
+    Tweet createdTweet = twitterTweetStorage.addTweetToWatch(createTwitterTweetInstance());
+    TwitterTweetEntity entity = twitterTweetDAO.findById(createdTweet.getTweetId()).orElseThrow();
+    when(twitterTweetDAO.updateReactorIds(eq(createdTweet.getTweetId()), any(), any())).thenAnswer(invocation -> {
+      entity.setLikerIds(invocation.getArgument(1));
+      entity.setRetweeterIds(invocation.getArgument(2));
+      return 1;
+    });
+    long[] likerIds = randomUserIds(100000);
+    long[] retweeterIds = randomUserIds(20000);
+
+    // When
+    assertTrue(twitterTweetStorage.updateTweetReactors(createdTweet.getTweetId(), likerIds, retweeterIds));
+    Tweet tweet = twitterTweetStorage.getTweetById(createdTweet.getTweetId());
+
+    // Then
+    // Exceeds the 64 KB of a MySQL BLOB column
+    assertTrue(entity.getLikerIds().length > 65535);
+    assertArrayEquals(likerIds, tweet.getLikerIds());
+    assertArrayEquals(retweeterIds, tweet.getRetweeterIds());
+  }
+
+  @Test
+  void testLoadLegacyTweetReactors() {
     // Given
-    Tweet TwitterTweet = createTwitterTweetInstance();
+    Tweet tweet = createTwitterTweetInstance();
+    tweet.setTweetId(1L);
+    Tweet otherTweet = createTwitterTweetInstance();
+    otherTweet.setTweetId(2L);
+    when(twitterTweetDAO.findLegacyLikers(List.of(1L, 2L))).thenReturn(List.of(newReactorUsername(1L, "user1"),
+                                                                             newReactorUsername(1L, "user2")));
+    when(twitterTweetDAO.findLegacyRetweeters(List.of(1L, 2L))).thenReturn(List.of(newReactorUsername(2L, "user3")));
+
+    // When
+    twitterTweetStorage.loadLegacyTweetReactors(List.of(tweet, otherTweet));
+
+    // Then
+    assertEquals(Set.of("user1", "user2"), tweet.getLikers());
+    assertEquals(Set.of(), tweet.getRetweeters());
+    assertEquals(Set.of(), otherTweet.getLikers());
+    assertEquals(Set.of("user3"), otherTweet.getRetweeters());
+  }
 
+  @Test
+  void testUpdateTweetMetrics() {
     // When
-    Set<String> tweetLikers = Tools.toSet("user1", "user2", "user3");
-    Set<String> tweetRetweeters = Tools.toSet("user1", "user2");
-    Tweet tweet = twitterTweetStorage.updateTweetReactions(10L, tweetLikers, tweetRetweeters);
+    Tweet tweet = twitterTweetStorage.updateTweetMetrics(10L, 3L, 2L);
 
     // Then
     assertNull(tweet);
 
     // When
-    Tweet createdTweet = twitterTweetStorage.addTweetToWatch(TwitterTweet);
-    tweet = twitterTweetStorage.updateTweetReactions(createdTweet.getTweetId(), tweetLikers, tweetRetweeters);
+    Tweet createdTweet = twitterTweetStorage.addTweetToWatch(createTwitterTweetInstance());
+    tweet = twitterTweetStorage.updateTweetMetrics(createdTweet.getTweetId(), 3L, 2L);
 
     // Then
     assertNotNull(tweet);
-    assertEquals(createdTweet.getTweetLink(), tweet.getTweetLink());
-    assertEquals(tweetLikers, tweet.getLikers());
-    assertEquals(tweetRetweeters, tweet.getRetweeters());
+    assertEquals(3L, tweet.getLikeCount());
+    assertEquals(2L, tweet.getRetweetCount());
+  }
+
+  @Test
+  void testUpdateTweetPolling() {
+    // When
+    Tweet tweet = twitterTweetStorage.updateTweetPolling(10L, true);
+
+    // Then
+    assertNull(tweet);
+
+    // When
+    Tweet createdTweet = twitterTweetStorage.addTweetToWatch(createTwitterTweetInstance());
+    tweet = twitterTweetStorage.updateTweetPolling(createdTweet.getTweetId(), false);
+
+    // Then
+    assertNotNull(tweet);
+    TwitterTweetEntity twitterTweetEntity = twitterTweetDAO.findById(ID).orElseThrow();
+    assertEquals(1800L, twitterTweetEntity.getPollInterval());
+    assertTrue(twitterTweetEntity.getNextPollDate().after(new Date()));
+
+    // When
+    when(twitterTweetDAO.findDueTweets(any())).thenReturn(List.of(twitterTweetEntity));
+
+    // Then
+    assertEquals(1, twitterTweetStorage.getDueTweets(new Date()).size());
   }
 
   @Test
@@ -172,6 +287,54 @@ class TwitterTweetStorageTest {
     assertEquals(createdTweet.getTweetLink(), tweet.getTweetLink());
   }
 
+  private TwitterTweetListing newListing(TwitterTweetEntity entity) {
+    return new TwitterTweetListing() {
+      @Override
+      public Long getId() {
+        return entity.getId();
+      }
+
+      @Override
+      public String getTweetLink() {
+        return entity.getTweetLink();
+      }
+
+      @Override
+      public Long getLikeCount() {
+        return entity.getLikeCount();
+      }
+
+      @Override
+      public Long getRetweetCount() {
+        return entity.getRetweetCount();
+      }
+    };
+  }
+
+  private TwitterTweetReactorUsername newReactorUsername(long tweetId, String username) {
+    return new TwitterTweetReactorUsername() {
+      @Override
+      public Long getTweetId() {
+        return tweetId;
+      }
+
+      @Override
+      public String getUsername() {
+        return username;
+      }
+    };
+  }
+
+  private long[] randomUserIds(int count) {
+    Random random = new Random(count);
+    return LongStream.generate(() -> random.nextInt(3) == 0 ? 12L + random.nextLong(1500000000L)
+                                                            : 700000000000000000L + random.nextLong(1100000000000000000L))
+                     .limit(count)
+                     .distinct()
+                     .sorted()
+                     .toArray();
+  }
+
   protected Tweet createTwitterTweetInstance() {
     Tweet tweet = new Tweet();
     tweet.setTweetLink(TWEET_LINK);
@@ -0,0 +1,153 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import io.meeds.twitter.gamification.model.ApiUsage;
+import io.meeds.twitter.gamification.model.ApiUsageStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+import io.meeds.twitter.gamification.storage.TwitterApiUsageStorage;
+
+@SpringBootTest(classes = { TwitterApiUsageLedger.class, }, properties = "io.meeds.gamification.twitter.usage.monthlyReadCap=1000")
+class TwitterApiUsageLedgerTest {
+
+  private static final String    BEARER_TOKEN = "bearerToken";
+
+  @MockBean
+  private TwitterApiUsageStorage twitterApiUsageStorage;
+
+  @Autowired
+  private TwitterApiUsageLedger  usageLedger;
+
+  @Test
+  void testFlushRecordedUsage() {
+    usageLedger.record(TwitterEndpoint.MENTIONS, BEARER_TOKEN, 10);
+    usageLedger.record(TwitterEndpoint.MENTIONS, BEARER_TOKEN, 5);
+    usageLedger.flush();
+
+    verify(twitterApiUsageStorage).addUsage(eq(LocalDate.now(ZoneOffset.UTC)),
+                                            eq(TwitterEndpoint.MENTIONS),
+                                            argThat(tokenHash -> tokenHash.length() == 64 && !tokenHash.contains(BEARER_TOKEN)),
+                                            eq(2L),
+                                            eq(15L));
+
+    // Already flushed usage isn't added twice
+    usageLedger.flush();
+    verify(twitterApiUsageStorage, times(1)).addUsage(any(), any(), any(), anyLong(), anyLong());
+  }
+
+  @Test
+  void testKeepUsageWhenFlushFails() {
+    doThrow(new IllegalStateException("Database error")).when(twitterApiUsageStorage)
+                                                        .addUsage(any(), any(), any(), anyLong(), anyLong());
+    usageLedger.record(TwitterEndpoint.TWEETS_LOOKUP, BEARER_TOKEN, 100);
+    usageLedger.flush();
+
+    doNothing().when(twitterApiUsageStorage).addUsage(any(), any(), any(), anyLong(), anyLong());
+    usageLedger.record(TwitterEndpoint.TWEETS_LOOKUP, BEARER_TOKEN, 50);
+    usageLedger.flush();
+
+    verify(twitterApiUsageStorage).addUsage(any(), eq(TwitterEndpoint.TWEETS_LOOKUP), any(), eq(2L), eq(150L));
+  }
+
+  @Test
+  void testCountReadPostsOnly() {
+    usageLedger.record(TwitterEndpoint.LIKING_USERS, BEARER_TOKEN, 100);
+    usageLedger.record(TwitterEndpoint.RETWEETED_BY, BEARER_TOKEN, 80);
+    usageLedger.flush();
+
+    // Users returned by reactors endpoints aren't counted as read posts
+    verify(twitterApiUsageStorage).addUsage(any(), eq(TwitterEndpoint.LIKING_USERS), any(), eq(1L), eq(0L));
+    verify(twitterApiUsageStorage).addUsage(any(), eq(TwitterEndpoint.RETWEETED_BY), any(), eq(1L), eq(0L));
+
+    String today = LocalDate.now(ZoneOffset.UTC).toString();
+    when(twitterApiUsageStorage.getUsages(any(), any())).thenReturn(List.of(new ApiUsage(today,
+                                                                                         TwitterEndpoint.LIKING_USERS,
+                                                                                         10,
+                                                                                         900),
+                                                                            new ApiUsage(today,
+                                                                                         TwitterEndpoint.MENTIONS,
+                                                                                         10,
+                                                                                         20)));
+    ApiUsageStatus usageStatus = usageLedger.getUsageStatus(BEARER_TOKEN);
+    assertEquals(20L, usageStatus.getRequestCount());
+    assertEquals(20L, usageStatus.getReadCount());
+    assertFalse(usageStatus.isCapReached());
+  }
+
+  @Test
+  void testGetUsageStatusWithoutFlushing() {
+    String today = LocalDate.now(ZoneOffset.UTC).toString();
+    when(twitterApiUsageStorage.getUsages(any(), any())).thenReturn(List.of(new ApiUsage(today,
+                                                                                         TwitterEndpoint.MENTIONS,
+                                                                                         10,
+                                                                                         20)));
+    usageLedger.record(TwitterEndpoint.MENTIONS, "otherBearerToken", 30);
+
+    ApiUsageStatus usageStatus = usageLedger.getUsageStatus("otherBearerToken");
+    assertEquals(11L, usageStatus.getRequestCount());
+    assertEquals(50L, usageStatus.getReadCount());
+    assertEquals(1, usageStatus.getUsages().size());
+    // Reading the status doesn't write the ledger
+    verify(twitterApiUsageStorage, never()).addUsage(any(), any(), any(), anyLong(), anyLong());
+
+    usageLedger.flush();
+    verify(twitterApiUsageStorage).addUsage(any(), eq(TwitterEndpoint.MENTIONS), any(), eq(1L), eq(30L));
+  }
+
+  @Test
+  void testThrottleWhenForecastExceedsCap() {
+    String today = LocalDate.now(ZoneOffset.UTC).toString();
+    when(twitterApiUsageStorage.getUsages(any(), any())).thenReturn(List.of(new ApiUsage(today,
+                                                                                         TwitterEndpoint.MENTIONS,
+                                                                                         10,
+                                                                                         999)));
+
+    ApiUsageStatus usageStatus = usageLedger.getUsageStatus(BEARER_TOKEN);
+    assertEquals(1000L, usageStatus.getMonthlyCap());
+    assertEquals(999L, usageStatus.getReadCount());
+    assertTrue(usageStatus.getForecastReadCount() >= 999L);
+    assertFalse(usageStatus.isCapReached());
+    // Throttled unless the month is about to end
+    assertEquals(usageStatus.getForecastReadCount() > 1000L, usageStatus.getThrottleFactor() > 1);
+
+    usageLedger.record(TwitterEndpoint.MENTIONS, BEARER_TOKEN, 0);
+    usageLedger.flush();
+    assertEquals(usageStatus.getThrottleFactor(), usageLedger.getThrottleFactor(), 0.1);
+    assertFalse(usageLedger.isCapReached());
+
+    when(twitterApiUsageStorage.getUsages(any(), any())).thenReturn(List.of(new ApiUsage(today,
+                                                                                         TwitterEndpoint.MENTIONS,
+                                                                                         10,
+                                                                                         1000)));
+    usageLedger.flush();
+    assertTrue(usageLedger.isCapReached());
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.meeds.twitter.gamification.exception.TwitterCircuitOpenException;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+@SpringBootTest(classes = { TwitterCircuitBreaker.class, })
+class TwitterCircuitBreakerTest {
+
+  @Autowired
+  private TwitterCircuitBreaker circuitBreaker;
+
+  @Test
+  void testOpenEndpointCircuitAfterConsecutiveFailures() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      circuitBreaker.recordFailure(TwitterEndpoint.LIKING_USERS);
+      circuitBreaker.check(TwitterEndpoint.LIKING_USERS, "token");
+    }
+    circuitBreaker.recordFailure(TwitterEndpoint.LIKING_USERS);
+
+    TwitterCircuitOpenException exception = assertThrows(TwitterCircuitOpenException.class,
+                                                         () -> circuitBreaker.check(TwitterEndpoint.LIKING_USERS, "token"));
+    assertEquals(TwitterEndpoint.LIKING_USERS, exception.getEndpoint());
+    assertTrue(exception.getOpenUntil() > System.currentTimeMillis() / 1000);
+    assertFalse(circuitBreaker.isClosed(TwitterEndpoint.LIKING_USERS, "token"));
+
+    // Other endpoints remain available
+    assertTrue(circuitBreaker.isClosed(TwitterEndpoint.RETWEETED_BY, "token"));
+
+    circuitBreaker.recordSuccess(TwitterEndpoint.LIKING_USERS, "token");
+    assertTrue(circuitBreaker.isClosed(TwitterEndpoint.LIKING_USERS, "token"));
+  }
+
+  @Test
+  void testRejectToken() throws Exception {
+    circuitBreaker.rejectToken("rejectedToken");
+
+    TwitterCircuitOpenException exception = assertThrows(TwitterCircuitOpenException.class,
+                                                         () -> circuitBreaker.check(TwitterEndpoint.MENTIONS, "rejectedToken"));
+    assertNull(exception.getEndpoint());
+    assertFalse(circuitBreaker.isClosed(TwitterEndpoint.USER_BY_ID, "rejectedToken"));
+    assertTrue(circuitBreaker.isClosed(TwitterEndpoint.MENTIONS, "otherToken"));
+
+    circuitBreaker.recordSuccess(TwitterEndpoint.RATE_LIMIT_STATUS, "rejectedToken");
+    assertTrue(circuitBreaker.isClosed(TwitterEndpoint.MENTIONS, "rejectedToken"));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import io.meeds.twitter.gamification.storage.client.model.TwitterMeta;
+import io.meeds.twitter.gamification.storage.client.model.TwitterResponse;
+
+class TwitterPageIteratorTest {
+
+  @Test
+  void testIterateAllPages() throws Exception {
+    List<String> requestedTokens = new ArrayList<>();
+    TwitterPageIterator<String> pages = new TwitterPageIterator<>(paginationToken -> {
+      requestedTokens.add(paginationToken);
+      return page(paginationToken == null ? "page1" : "page2", paginationToken == null ? "token2" : null);
+    }, 5);
+
+    assertTrue(pages.hasNext());
+    assertEquals("page1", pages.next().getData());
+    assertTrue(pages.hasNext());
+    assertEquals("page2", pages.next().getData());
+    assertFalse(pages.hasNext());
+    assertFalse(pages.isTruncated());
+    assertEquals(2, pages.getPageCount());
+    assertEquals(Arrays.asList(null, "token2"), requestedTokens);
+    assertThrows(NoSuchElementException.class, pages::next);
+  }
+
+  @Test
+  void testIterateWithinPagesBudget() throws Exception {
+    TwitterPageIterator<String> pages = new TwitterPageIterator<>(paginationToken -> page("page", "nextToken"), 2);
+
+    pages.next();
+    pages.next();
+    assertFalse(pages.hasNext());
+    assertTrue(pages.isTruncated());
+  }
+
+  @Test
+  void testIterateNotFoundPage() throws Exception {
+    TwitterPageIterator<String> pages = new TwitterPageIterator<>(paginationToken -> null, 2);
+
+    assertNull(pages.next());
+    assertFalse(pages.hasNext());
+    assertFalse(pages.isTruncated());
+  }
+
+  private TwitterResponse<String> page(String data, String nextToken) {
+    TwitterMeta meta = new TwitterMeta();
+    meta.setNextToken(nextToken);
+    return new TwitterResponse<>(data, null, meta, null, 0);
+  }
+}
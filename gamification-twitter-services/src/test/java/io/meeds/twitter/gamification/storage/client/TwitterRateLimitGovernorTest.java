@@ -0,0 +1,112 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.meeds.twitter.gamification.exception.TwitterRateLimitException;
+import io.meeds.twitter.gamification.model.RateLimitStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+@SpringBootTest(classes = { TwitterRateLimitGovernor.class, })
+class TwitterRateLimitGovernorTest {
+
+  @Autowired
+  private TwitterRateLimitGovernor rateLimitGovernor;
+
+  @Test
+  void testAcquireWithUnknownBudget() throws Exception {
+    rateLimitGovernor.acquire(TwitterEndpoint.USER_BY_USERNAME);
+
+    RateLimitStatus rateLimitStatus = rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.USER_BY_USERNAME);
+    assertNull(rateLimitStatus.getRemaining());
+    assertFalse(rateLimitStatus.isOnHold());
+  }
+
+  @Test
+  void testAcquireUntilBudgetExhausted() throws Exception {
+    String reset = String.valueOf(System.currentTimeMillis() / 1000 + 900);
+    rateLimitGovernor.update(TwitterEndpoint.LIKING_USERS, "75", "2", reset);
+
+    rateLimitGovernor.acquire(TwitterEndpoint.LIKING_USERS);
+    rateLimitGovernor.acquire(TwitterEndpoint.LIKING_USERS);
+    TwitterRateLimitException exception = assertThrows(TwitterRateLimitException.class,
+                                                       () -> rateLimitGovernor.acquire(TwitterEndpoint.LIKING_USERS));
+    assertEquals(TwitterEndpoint.LIKING_USERS, exception.getEndpoint());
+    assertEquals(Long.parseLong(reset), exception.getReset());
+
+    RateLimitStatus rateLimitStatus = rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.LIKING_USERS);
+    assertEquals(75L, rateLimitStatus.getLimit());
+    assertEquals(0L, rateLimitStatus.getRemaining());
+    assertTrue(rateLimitStatus.isOnHold());
+
+    // Other endpoints budget isn't impacted
+    rateLimitGovernor.acquire(TwitterEndpoint.RATE_LIMIT_STATUS);
+  }
+
+  @Test
+  void testAcquireAfterWindowReset() throws Exception {
+    String elapsedReset = String.valueOf(System.currentTimeMillis() / 1000 - 1);
+    rateLimitGovernor.update(TwitterEndpoint.MENTIONS, "450", "0", elapsedReset);
+
+    rateLimitGovernor.acquire(TwitterEndpoint.MENTIONS);
+    assertFalse(rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.MENTIONS).isOnHold());
+  }
+
+  @Test
+  void testHoldCallUntilWindowReset() throws Exception {
+    long reset = System.currentTimeMillis() / 1000 + 1;
+    rateLimitGovernor.update(TwitterEndpoint.USERS_BY_IDS, "300", "0", String.valueOf(reset));
+
+    rateLimitGovernor.acquire(TwitterEndpoint.USERS_BY_IDS);
+    assertTrue(System.currentTimeMillis() >= reset * 1000);
+  }
+
+  @Test
+  void testKeepLowestRemainingInSameWindow() throws Exception {
+    String reset = String.valueOf(System.currentTimeMillis() / 1000 + 900);
+    rateLimitGovernor.update(TwitterEndpoint.TWEETS_LOOKUP, "300", "10", reset);
+    rateLimitGovernor.acquire(TwitterEndpoint.TWEETS_LOOKUP);
+    rateLimitGovernor.acquire(TwitterEndpoint.TWEETS_LOOKUP);
+
+    // Response of a call issued before the local reservations
+    rateLimitGovernor.update(TwitterEndpoint.TWEETS_LOOKUP, "300", "9", reset);
+    assertEquals(8L, rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.TWEETS_LOOKUP).getRemaining());
+
+    // Response of a previous window
+    rateLimitGovernor.update(TwitterEndpoint.TWEETS_LOOKUP, "300", "299", String.valueOf(Long.parseLong(reset) - 900));
+    assertEquals(8L, rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.TWEETS_LOOKUP).getRemaining());
+
+    // New window
+    String nextReset = String.valueOf(Long.parseLong(reset) + 900);
+    rateLimitGovernor.update(TwitterEndpoint.TWEETS_LOOKUP, "300", "299", nextReset);
+    assertEquals(299L, rateLimitGovernor.getRateLimitStatus(TwitterEndpoint.TWEETS_LOOKUP).getRemaining());
+  }
+
+  @Test
+  void testExhaust() {
+    long reset = rateLimitGovernor.exhaust(TwitterEndpoint.RETWEETED_BY, null);
+    assertTrue(reset > System.currentTimeMillis() / 1000);
+    assertThrows(TwitterRateLimitException.class, () -> rateLimitGovernor.acquire(TwitterEndpoint.RETWEETED_BY));
+    assertEquals(TwitterEndpoint.values().length, rateLimitGovernor.getRateLimitStatuses().size());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.meeds.twitter.gamification.exception.TwitterConnectionException;
+
+@SpringBootTest(classes = { TwitterRequestCoalescer.class, }, properties = "io.meeds.gamification.twitter.coalescing.ttlMillis=200")
+class TwitterRequestCoalescerTest {
+
+  private static final String     BEARER_TOKEN = "bearerToken";
+
+  @Autowired
+  private TwitterRequestCoalescer requestCoalescer;
+
+  @Test
+  void testCoalesceConcurrentRequests() throws Exception {
+    AtomicInteger loadCount = new AtomicInteger();
+    CountDownLatch loadStarted = new CountDownLatch(1);
+    CountDownLatch loadReleased = new CountDownLatch(1);
+    CompletableFuture<String> firstCall = CompletableFuture.supplyAsync(() -> {
+      try {
+        return requestCoalescer.execute("https://api.twitter.com/2/users/1", BEARER_TOKEN, () -> {
+          loadCount.incrementAndGet();
+          loadStarted.countDown();
+          awaitQuietly(loadReleased);
+          return "user1";
+        });
+      } catch (TwitterConnectionException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> secondCall = CompletableFuture.supplyAsync(() -> {
+      try {
+        return requestCoalescer.execute("https://api.twitter.com/2/users/1", BEARER_TOKEN, () -> {
+          loadCount.incrementAndGet();
+          return "other";
+        });
+      } catch (TwitterConnectionException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    loadReleased.countDown();
+
+    assertEquals("user1", firstCall.get(5, TimeUnit.SECONDS));
+    assertEquals("user1", secondCall.get(5, TimeUnit.SECONDS));
+    assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  void testDistinctRequestsAreNotCoalesced() throws Exception {
+    assertEquals("user2", requestCoalescer.execute("https://api.twitter.com/2/users/2", BEARER_TOKEN, () -> "user2"));
+    assertEquals("user3", requestCoalescer.execute("https://api.twitter.com/2/users/3", BEARER_TOKEN, () -> "user3"));
+    assertEquals("user2", requestCoalescer.execute("https://api.twitter.com/2/users/2", "otherToken", () -> "user2"));
+  }
+
+  @Test
+  void testFailureIsNotReused() throws Exception {
+    String uri = "https://api.twitter.com/2/users/4";
+    assertThrows(TwitterConnectionException.class, () -> requestCoalescer.execute(uri, BEARER_TOKEN, () -> {
+      throw new TwitterConnectionException("twitter.connectionError");
+    }));
+    assertEquals("user4", requestCoalescer.execute(uri, BEARER_TOKEN, () -> "user4"));
+  }
+
+  @Test
+  void testResultIsEvictedAfterTtl() throws Exception {
+    String uri = "https://api.twitter.com/2/users/5";
+    AtomicInteger loadCount = new AtomicInteger();
+    assertEquals("user5", requestCoalescer.execute(uri, BEARER_TOKEN, () -> {
+      loadCount.incrementAndGet();
+      return "user5";
+    }));
+    assertEquals("user5", requestCoalescer.execute(uri, BEARER_TOKEN, () -> "other"));
+    assertEquals(1, loadCount.get());
+
+    Map<?, ?> requests = (Map<?, ?>) ReflectionTestUtils.getField(requestCoalescer, "requests");
+    long timeout = System.currentTimeMillis() + 5000;
+    while (!requests.isEmpty() && System.currentTimeMillis() < timeout) {
+      Thread.sleep(50);
+    }
+    assertTrue(requests.isEmpty());
+  }
+
+  private void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+
+import io.meeds.twitter.gamification.model.TwitterAccount;
+import io.meeds.twitter.gamification.model.TwitterTrigger;
+import io.meeds.twitter.gamification.storage.client.model.TwitterRateLimitStatus;
+import io.meeds.twitter.gamification.storage.client.model.TwitterResponse;
+import io.meeds.twitter.gamification.storage.client.model.TwitterTweet;
+import io.meeds.twitter.gamification.storage.client.model.TwitterUser;
+
+class TwitterResponseParsersTest {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Test
+  void testParseReactors() throws Exception {
+    String response = """
+        {"data":[{"id":"1","name":"User 1","username":"user1"},{"id":"2","name":"User 2","username":"user2"}],
+         "meta":{"result_count":2,"next_token":"7140dibdnow9c7btw3w29grvxfcgvpb9n9coehpk7xz5i"}}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterResponse<Map<Long, String>> reactors = TwitterResponseParsers.parseReactors(jsonParser);
+      assertEquals(Map.of(1L, "user1", 2L, "user2"), reactors.getData());
+      assertEquals(2, reactors.getMeta().getResultCount());
+      assertEquals("7140dibdnow9c7btw3w29grvxfcgvpb9n9coehpk7xz5i", reactors.getMeta().getNextToken());
+      assertNull(reactors.getErrors());
+    }
+    try (JsonParser jsonParser = JSON_FACTORY.createParser("{\"meta\":{\"result_count\":0}}")) {
+      assertTrue(TwitterResponseParsers.parseReactors(jsonParser).getData().isEmpty());
+    }
+  }
+
+  @Test
+  void testParseMentions() throws Exception {
+    TwitterAccount twitterAccount = new TwitterAccount();
+    twitterAccount.setRemoteId(100L);
+    twitterAccount.setIdentifier("meeds");
+    String response = """
+        {"data":[{"id":"30","conversation_id":"30","author_id":"2","text":"Hello @meeds"},
+                 {"id":"20","conversation_id":"10","author_id":"1","text":"@meeds reply"},
+                 {"id":"15","conversation_id":"10","author_id":"1","text":"@meeds explicit reply to @meeds"}],
+         "includes":{"users":[{"id":"1","name":"User 1","username":"user1"},{"id":"2","name":"User 2","username":"user2"}]},
+         "meta":{"newest_id":"30","oldest_id":"15","result_count":3}}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterResponse<List<TwitterTrigger>> mentionsResponse = TwitterResponseParsers.parseMentions(jsonParser, twitterAccount);
+      assertEquals(30L, mentionsResponse.getMeta().getNewestId());
+      List<TwitterTrigger> mentions = mentionsResponse.getData();
+      assertEquals(2, mentions.size());
+      assertEquals(30L, mentions.get(0).getTweetId());
+      assertEquals("user2", mentions.get(0).getTwitterUsername());
+      assertEquals(100L, mentions.get(0).getAccountId());
+      assertEquals(15L, mentions.get(1).getTweetId());
+      assertEquals("user1", mentions.get(1).getTwitterUsername());
+    }
+  }
+
+  @Test
+  void testCountSkippedMentions() throws Exception {
+    TwitterAccount twitterAccount = new TwitterAccount();
+    twitterAccount.setRemoteId(100L);
+    twitterAccount.setIdentifier("meeds");
+    String response = """
+        {"data":[{"id":"30","conversation_id":"10","author_id":"2","text":"@meeds first reply"},
+                 {"id":"20","conversation_id":"10","author_id":"1","text":"@meeds second reply"}],
+         "meta":{"newest_id":"30","oldest_id":"20","result_count":2}}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterResponse<List<TwitterTrigger>> mentionsResponse = TwitterResponseParsers.parseMentions(jsonParser, twitterAccount);
+      // Default replies are skipped but were read
+      assertTrue(mentionsResponse.getData().isEmpty());
+      assertEquals(2, mentionsResponse.getDataCount());
+    }
+  }
+
+  @Test
+  void testParseUser() throws Exception {
+    String response = """
+        {"data":{"id":"2244994945","name":"Meeds","username":"meeds","description":"Meeds DAO","profile_image_url":"https://pbs.twimg.com/meeds.jpg","verified":false}}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterUser twitterUser = TwitterResponseParsers.parseUser(jsonParser).getData();
+      assertEquals(2244994945L, twitterUser.getId());
+      assertEquals("meeds", twitterUser.getUsername());
+      assertEquals("Meeds", twitterUser.getName());
+      assertEquals("Meeds DAO", twitterUser.getDescription());
+      assertEquals("https://pbs.twimg.com/meeds.jpg", twitterUser.getProfileImageUrl());
+    }
+    String notFoundResponse = """
+        {"errors":[{"value":"unknown","detail":"Could not find user with username: [unknown].","title":"Not Found Error","resource_type":"user","parameter":"username","resource_id":"unknown","type":"https://api.twitter.com/2/problems/resource-not-found"}]}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(notFoundResponse)) {
+      TwitterResponse<TwitterUser> userResponse = TwitterResponseParsers.parseUser(jsonParser);
+      assertNull(userResponse.getData());
+      assertEquals(1, userResponse.getErrors().size());
+      assertEquals("Not Found Error", userResponse.getErrors().get(0).getTitle());
+      assertEquals("user", userResponse.getErrors().get(0).getResourceType());
+    }
+  }
+
+  @Test
+  void testParseTweets() throws Exception {
+    String response = """
+        {"data":[{"id":"1261326399320715264","text":"Hello","public_metrics":{"retweet_count":3,"reply_count":1,"like_count":12,"quote_count":0}}],
+         "errors":[{"value":"1276230436478386177","detail":"Could not find tweet with ids: [1276230436478386177].","title":"Not Found Error","resource_type":"tweet","parameter":"ids","resource_id":"1276230436478386177","type":"https://api.twitter.com/2/problems/resource-not-found"}]}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterResponse<List<TwitterTweet>> tweetsResponse = TwitterResponseParsers.parseTweets(jsonParser);
+      assertEquals(1, tweetsResponse.getData().size());
+      TwitterTweet tweet = tweetsResponse.getData().get(0);
+      assertEquals(1261326399320715264L, tweet.getId());
+      assertEquals(12L, tweet.getPublicMetrics().getLikeCount());
+      assertEquals(3L, tweet.getPublicMetrics().getRetweetCount());
+      assertEquals(1, tweetsResponse.getErrors().size());
+      assertEquals("tweet", tweetsResponse.getErrors().get(0).getResourceType());
+    }
+  }
+
+  @Test
+  void testParseRateLimitStatus() throws Exception {
+    String response = """
+        {"rate_limit_context":{"application":"abc"},
+         "resources":{"users":{"/users/by/username/:username":{"limit":300,"remaining":299,"reset":1700000000}}}}
+        """;
+    try (JsonParser jsonParser = JSON_FACTORY.createParser(response)) {
+      TwitterRateLimitStatus rateLimitStatus = TwitterResponseParsers.parseRateLimitStatus(jsonParser);
+      assertEquals(299L, rateLimitStatus.getResources().get("users").get("/users/by/username/:username").getRemaining());
+      assertEquals(1700000000L, rateLimitStatus.getResources().get("users").get("/users/by/username/:username").getReset());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.meeds.twitter.gamification.model.TokenStatus;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+@SpringBootTest(classes = { TwitterTokenStatusCache.class, })
+class TwitterTokenStatusCacheTest {
+
+  @Autowired
+  private TwitterTokenStatusCache tokenStatusCache;
+
+  @Test
+  void testUpdateFromUserByUsernameTraffic() {
+    String reset = String.valueOf(System.currentTimeMillis() / 1000 + 900);
+    assertNull(tokenStatusCache.get("token1"));
+
+    tokenStatusCache.update(TwitterEndpoint.USER_BY_USERNAME, "token1", 200, "299", reset);
+
+    TokenStatus tokenStatus = tokenStatusCache.get("token1");
+    assertNotNull(tokenStatus);
+    assertTrue(tokenStatus.getIsValid());
+    assertEquals(299L, tokenStatus.getRemaining());
+    assertEquals(Long.parseLong(reset), tokenStatus.getReset());
+
+    // Other endpoints traffic keeps the known budget
+    tokenStatusCache.update(TwitterEndpoint.LIKING_USERS, "token1", 200, "10", reset);
+    assertEquals(299L, tokenStatusCache.get("token1").getRemaining());
+    // Other users endpoints have their own rate limit windows
+    tokenStatusCache.update(TwitterEndpoint.USER_BY_ID, "token1", 200, "899", reset);
+    tokenStatusCache.update(TwitterEndpoint.USERS_BY_IDS, "token1", 200, "899", reset);
+    assertEquals(299L, tokenStatusCache.get("token1").getRemaining());
+  }
+
+  @Test
+  void testUnknownBudgetHasToBeProbed() {
+    tokenStatusCache.update(TwitterEndpoint.MENTIONS, "token2", 200, "10", "1700000000");
+    assertNull(tokenStatusCache.get("token2"));
+  }
+
+  @Test
+  void testRejectedToken() {
+    tokenStatusCache.put("token3", new TokenStatus(true, 10L, System.currentTimeMillis() / 1000 + 900));
+
+    tokenStatusCache.update(TwitterEndpoint.MENTIONS, "token3", 401, null, null);
+
+    TokenStatus tokenStatus = tokenStatusCache.get("token3");
+    assertNotNull(tokenStatus);
+    assertFalse(tokenStatus.getIsValid());
+  }
+
+  @Test
+  void testStaleAfterWindowReset() {
+    tokenStatusCache.put("token4", new TokenStatus(true, 0L, System.currentTimeMillis() / 1000 - 1));
+    assertNull(tokenStatusCache.get("token4"));
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.storage.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import io.meeds.twitter.gamification.model.TransferStatistics;
+import io.meeds.twitter.gamification.model.TwitterEndpoint;
+
+@SpringBootTest(classes = { TwitterTransferStatistics.class, })
+class TwitterTransferStatisticsTest {
+
+  @Autowired
+  private TwitterTransferStatistics transferStatistics;
+
+  @Test
+  void testRecord() {
+    transferStatistics.record(TwitterEndpoint.MENTIONS, 1200, 5400);
+    transferStatistics.record(TwitterEndpoint.MENTIONS, 800, 3600);
+
+    assertEquals(TwitterEndpoint.values().length, transferStatistics.getTransferStatistics().size());
+    TransferStatistics mentionsStatistics = transferStatistics.getTransferStatistics()
+                                                              .stream()
+                                                              .filter(s -> s.getEndpoint() == TwitterEndpoint.MENTIONS)
+                                                              .findFirst()
+                                                              .orElseThrow();
+    assertEquals(2, mentionsStatistics.getResponseCount());
+    assertEquals(2000, mentionsStatistics.getWireBytes());
+    assertEquals(9000, mentionsStatistics.getDecodedBytes());
+
+    TransferStatistics likersStatistics = transferStatistics.getTransferStatistics()
+                                                            .stream()
+                                                            .filter(s -> s.getEndpoint() == TwitterEndpoint.LIKING_USERS)
+                                                            .findFirst()
+                                                            .orElseThrow();
+    assertEquals(0, likersStatistics.getResponseCount());
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of the Meeds project (https://meeds.io/).
+ *
+ * Copyright (C) 2020 - 2024 Meeds Association contact@meeds.io
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
+ */
+package io.meeds.twitter.gamification.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class ReactorIdsCodecTest {
+
+  @Test
+  void testEncodeEmptyIds() {
+    assertNull(ReactorIdsCodec.encode(null));
+    assertNull(ReactorIdsCodec.encode(new long[0]));
+    assertEquals(0, ReactorIdsCodec.decode(null).length);
+  }
+
+  @Test
+  void testEncodeAndDecode() {
+    long[] ids = new long[] { 12L, 783214L, 1467726470533754880L, Long.MAX_VALUE };
+    assertArrayEquals(ids, ReactorIdsCodec.decode(ReactorIdsCodec.encode(ids)));
+  }
+
+  @Test
+  void testEncodeCompactly() {
+    long[] ids = randomUserIds(10000);
+
+    byte[] blob = ReactorIdsCodec.encode(ids);
+    assertTrue(blob.length < ids.length * 6, "Expected about 5 bytes per id, got " + blob.length);
+    assertArrayEquals(ids, ReactorIdsCodec.decode(blob));
+  }
+
+  @Test
+  void testDecodeCorruptedIds() {
+    assertThrows(IllegalArgumentException.class, () -> ReactorIdsCodec.decode(new byte[] { 9, 1, 2 }));
+    assertThrows(IllegalArgumentException.class, () -> ReactorIdsCodec.decode(new byte[] { 1, 1, 2 }));
+  }
+
+  /**
+   * @param count count of ids to generate
+   * @return sorted Twitter user ids, a third of sequential ids of accounts
+   *         created before snowflake ids and the rest of snowflake ids
+   */
+  private long[] randomUserIds(int count) {
+    Random random = new Random(count);
+    return LongStream.generate(() -> random.nextInt(3) == 0 ? 12L + random.nextLong(1500000000L)
+                                                            : 700000000000000000L + random.nextLong(1100000000000000000L))
+                     .limit(count)
+                     .distinct()
+                     .sorted()
+                     .toArray();
+  }
+}